@@ -0,0 +1,48 @@
+package com.example.test.benchmark;
+
+import com.example.test.TestApplication;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+
+/**
+ * Runs benchmarks with allocation profiler and stores results as JSON,
+ * one file per application version, so they can be compared between releases.
+ * Accepts the usual JMH command line options, which take precedence over the defaults here.
+ */
+public class BenchmarkRunner {
+
+    private static final String RESULTS_DIRECTORY = "results";
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        new File(RESULTS_DIRECTORY).mkdirs();
+
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .forks(commandLineOptions.getForkCount().orElse(1))
+                .warmupIterations(commandLineOptions.getWarmupIterations().orElse(3))
+                .warmupTime(commandLineOptions.getWarmupTime().orElse(TimeValue.seconds(5)))
+                .measurementIterations(commandLineOptions.getMeasurementIterations().orElse(5))
+                .measurementTime(commandLineOptions.getMeasurementTime().orElse(TimeValue.seconds(5)))
+                .resultFormat(commandLineOptions.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLineOptions.getResult().orElse(RESULTS_DIRECTORY + "/" + applicationVersion() + ".json"))
+                .build();
+
+        new Runner(options).run();
+    }
+
+    private static String applicationVersion() {
+        String version = TestApplication.class.getPackage().getImplementationVersion();
+        return version != null ? version : "dev";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.example.test.benchmark;
+
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.mapper.PatientMapper;
+import com.example.test.model.entity.Patient;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Mapping between {@link PatientDto} and {@link Patient}, done on every request.
+ */
+@State(Scope.Thread)
+public class PatientMapperBenchmark {
+
+    private final PatientMapper patientMapper = Mappers.getMapper(PatientMapper.class);
+
+    private PatientDto patientDto;
+    private Patient patient;
+
+    @Setup
+    public void setUp() {
+        patientDto = PatientSamples.patientDto(1);
+        patient = patientMapper.toPatient(patientDto);
+        patient.setId(patientDto.getId());
+    }
+
+    @Benchmark
+    public Patient toPatient() {
+        return patientMapper.toPatient(patientDto);
+    }
+
+    @Benchmark
+    public PatientDto toPatientDto() {
+        return patientMapper.toPatientDto(patient);
+    }
+
+    @Benchmark
+    public Patient updatePatient() {
+        patientMapper.updatePatient(patientDto, patient);
+        return patient;
+    }
+}
\ No newline at end of file
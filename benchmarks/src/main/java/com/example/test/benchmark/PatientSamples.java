@@ -0,0 +1,37 @@
+package com.example.test.benchmark;
+
+import com.example.test.controller.dto.PatientDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Test data shared by benchmarks.
+ */
+final class PatientSamples {
+
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1950, 1, 1);
+
+    private PatientSamples() {
+    }
+
+    static PatientDto patientDto(int index) {
+        return PatientDto.builder()
+                .id(UUID.nameUUIDFromBytes(("patient-" + index).getBytes()))
+                .name("Patient " + index)
+                .birthDate(FIRST_BIRTH_DATE.plusDays(index % 20_000))
+                .lastTemperature(36.6 + index % 30 / 10.0)
+                .lastPulse(60 + index % 60)
+                .build();
+    }
+
+    static List<PatientDto> patientDtoList(int size) {
+        List<PatientDto> patients = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            patients.add(patientDto(i));
+        }
+        return patients;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.test.benchmark;
+
+import com.example.test.controller.dto.PatientDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * JSON (de)serialization of patient lists, birth date goes through its {@code @JsonFormat} pattern.
+ * Object mapper is built the same way Spring Boot builds it for controllers.
+ */
+@State(Scope.Benchmark)
+public class PatientSerializationBenchmark {
+
+    private static final TypeReference<List<PatientDto>> PATIENT_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<PatientDto> patients;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        patients = PatientSamples.patientDtoList(size);
+        json = objectMapper.writeValueAsBytes(patients);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(patients);
+    }
+
+    @Benchmark
+    public List<PatientDto> deserialize() throws IOException {
+        return objectMapper.readValue(json, PATIENT_LIST);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.example.test.benchmark;
+
+import com.example.test.TestApplication;
+import com.example.test.controller.dto.PatientBatchResultDto;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.PatientPageDto;
+import com.example.test.service.PatientService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link PatientService} operations with the whole application context behind them.
+ * Every fork starts its own embedded PostgreSQL instead of the real database and fills it with patients.
+ */
+@State(Scope.Benchmark)
+public class PatientServiceBenchmark {
+
+    private static final int PATIENTS = 1000;
+
+    private final AtomicLong admissions = new AtomicLong();
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+    private List<UUID> patientIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        context = new SpringApplicationBuilder(TestApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        patientService = context.getBean(PatientService.class);
+
+        patientIds = patientService.addNewPatients(PatientSamples.patientDtoList(PATIENTS)).stream()
+                .map(PatientBatchResultDto::getPatient)
+                .map(PatientDto::getId)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public PatientDto getPatient() {
+        return patientService.getPatient(randomPatientId());
+    }
+
+    @Benchmark
+    public PatientDto addNewPatient() {
+        PatientDto patientDto = PatientSamples.patientDto(PATIENTS);
+        patientDto.setName("Admitted patient " + admissions.incrementAndGet());
+        return patientService.addNewPatient(patientDto);
+    }
+
+    @Benchmark
+    public PatientDto changeInformationAboutPatient() {
+        int index = ThreadLocalRandom.current().nextInt(PATIENTS);
+        PatientDto patientDto = PatientSamples.patientDto(index);
+        patientDto.setLastPulse(ThreadLocalRandom.current().nextInt(50, 120));
+        return patientService.changeInformationAboutPatient(patientIds.get(index), patientDto);
+    }
+
+    @Benchmark
+    public PatientPageDto getNotDischargedPatientsPage() {
+        return patientService.getNotDischargedPatientsPage(null, 50);
+    }
+
+    @Benchmark
+    public List<PatientDto> searchPatients() {
+        return patientService.searchPatients("Patient 12", true, 20);
+    }
+
+    private UUID randomPatientId() {
+        return patientIds.get(ThreadLocalRandom.current().nextInt(PATIENTS));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.example.test.benchmark;
+
+import com.example.test.config.VitalsAlertProperties;
+import com.example.test.config.VitalsAlertProperties.Vital;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.service.alert.VitalsAlertEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Cost of evaluating alert rules for one vitals write, with the default rules of the application.
+ * Every write changes vitals of one of many watched patients, so some writes raise or clear alerts.
+ */
+@State(Scope.Benchmark)
+public class VitalsAlertBenchmark {
+
+    private static final int PATIENTS = 10_000;
+
+    private VitalsAlertEngine engine;
+    private PatientDto[] patients;
+    private long writes;
+
+    @Setup
+    public void setUp() {
+        VitalsAlertProperties properties = new VitalsAlertProperties();
+        properties.setRules(List.of(
+                rule("fever", Vital.TEMPERATURE, 38.0, null, null),
+                rule("hypothermia", Vital.TEMPERATURE, null, 35.0, null),
+                rule("temperature-rising", Vital.TEMPERATURE, null, null, 1.0),
+                rule("pulse-out-of-band", Vital.PULSE, 120.0, 50.0, null)));
+        engine = new VitalsAlertEngine(properties, List.of(alert -> {
+        }), new SimpleMeterRegistry());
+
+        patients = new PatientDto[PATIENTS];
+        for (int i = 0; i < PATIENTS; i++) {
+            patients[i] = PatientSamples.patientDto(i);
+            engine.evaluate(patients[i], Instant.now());
+        }
+    }
+
+    @Benchmark
+    public void evaluate() {
+        long write = writes++;
+        PatientDto patient = patients[(int) (write % PATIENTS)];
+        patient.setVersion(patient.getVersion() + 1);
+        patient.setLastTemperature(35.5 + write % 40 / 10.0);
+        patient.setLastPulse(45 + (int) (write % 90));
+        engine.evaluate(patient, Instant.now());
+    }
+
+    private static VitalsAlertProperties.Rule rule(String name, Vital vital, Double above, Double below, Double rise) {
+        VitalsAlertProperties.Rule rule = new VitalsAlertProperties.Rule();
+        rule.setName(name);
+        rule.setVital(vital);
+        rule.setAbove(above);
+        rule.setBelow(below);
+        rule.setRise(rise);
+        return rule;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.example.test.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors of every operation, recorded by all clients concurrently.
+ * Latencies are recorded in microseconds.
+ */
+public class LoadStatistics {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<WardOperation, Recorder> latencies = new EnumMap<>(WardOperation.class);
+    private final Map<WardOperation, LongAdder> errors = new EnumMap<>(WardOperation.class);
+
+    public LoadStatistics() {
+        for (WardOperation operation : WardOperation.values()) {
+            latencies.put(operation, new Recorder(SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public void record(WardOperation operation, long nanos, boolean succeeded) {
+        latencies.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+        if (!succeeded) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * Method for taking everything recorded since the previous call.
+     */
+    public Map<WardOperation, OperationResult> takeInterval() {
+        Map<WardOperation, OperationResult> results = new EnumMap<>(WardOperation.class);
+        for (WardOperation operation : WardOperation.values()) {
+            results.put(operation, new OperationResult(latencies.get(operation).getIntervalHistogram(),
+                    errors.get(operation).sumThenReset()));
+        }
+        return results;
+    }
+
+    /**
+     * Latencies and error count of one operation.
+     */
+    public record OperationResult(Histogram latencies, long errors) {
+
+        public long requests() {
+            return latencies.getTotalCount();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.example.test.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Settings of the load test, read from "loadtest.properties".
+ * Every setting can be overridden by argument like "loadtest.clients=8,16".
+ *
+ * @param baseUrl         url of running instance, blank to start the application with embedded PostgreSQL
+ * @param initialPatients patients admitted before the first step
+ * @param clients         concurrent clients of every step
+ * @param warmup          part of every step which is not measured
+ * @param duration        measured part of every step
+ * @param requestInterval interval between intended starts of requests of every client
+ * @param mix             relative weights of operations
+ * @param maxLatency      SLO for 99th percentile of operation latency
+ * @param maxErrorRate    SLO for share of failed requests
+ * @param minThroughput   SLO for requests per second which the application must handle within other SLOs
+ */
+public record LoadTestSettings(String baseUrl, int initialPatients, List<Integer> clients,
+                               Duration warmup, Duration duration, Duration requestInterval,
+                               Map<WardOperation, Integer> mix, Map<WardOperation, Duration> maxLatency,
+                               double maxErrorRate, double minThroughput) {
+
+    private static final String SETTINGS_RESOURCE = "/loadtest.properties";
+    private static final String PREFIX = "loadtest.";
+
+    public static LoadTestSettings load(String[] args) {
+        Properties properties = new Properties();
+        try (InputStream settings = LoadTestSettings.class.getResourceAsStream(SETTINGS_RESOURCE)) {
+            properties.load(settings);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith(PREFIX) || separator < 0) {
+                throw new IllegalArgumentException("Argument must look like loadtest.name=value: " + arg);
+            }
+            properties.setProperty(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        Map<WardOperation, Integer> mix = new EnumMap<>(WardOperation.class);
+        Map<WardOperation, Duration> maxLatency = new EnumMap<>(WardOperation.class);
+        for (WardOperation operation : WardOperation.values()) {
+            mix.put(operation, Integer.parseInt(get(properties, "mix." + operation.key())));
+            maxLatency.put(operation, duration(properties, "slo." + operation.key() + ".p99"));
+        }
+
+        Duration requestInterval = duration(properties, "request-interval");
+        if (requestInterval.isNegative() || requestInterval.isZero()) {
+            throw new IllegalArgumentException("Load test setting must be positive: " + PREFIX + "request-interval");
+        }
+
+        return new LoadTestSettings(
+                get(properties, "base-url"),
+                Integer.parseInt(get(properties, "initial-patients")),
+                Arrays.stream(get(properties, "clients").split(",")).map(String::trim).map(Integer::valueOf).toList(),
+                duration(properties, "warmup"),
+                duration(properties, "duration"),
+                requestInterval,
+                mix,
+                maxLatency,
+                Double.parseDouble(get(properties, "slo.max-error-rate")),
+                Double.parseDouble(get(properties, "slo.min-throughput")));
+    }
+
+    private static String get(Properties properties, String name) {
+        String value = properties.getProperty(PREFIX + name);
+        if (value == null) {
+            throw new IllegalArgumentException("Load test setting is missing: " + PREFIX + name);
+        }
+        return value.trim();
+    }
+
+    private static Duration duration(Properties properties, String name) {
+        return DurationStyle.detectAndParse(get(properties, name));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.test.loadtest;
+
+import com.example.test.controller.dto.PatientDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Patients admitted by the load test, not discharged and not taken by a client at the moment, shared by all clients.
+ */
+public class Ward {
+
+    private final List<PatientDto> patients = new ArrayList<>();
+
+    public synchronized void admit(PatientDto patientDto) {
+        patients.add(patientDto);
+    }
+
+    /**
+     * Method for taking random patient out of the ward, so no other client changes or discharges it meanwhile.
+     * Patient which is not discharged should be returned by {@link #admit}.
+     */
+    public synchronized Optional<PatientDto> takeRandomPatient() {
+        if (patients.isEmpty()) {
+            return Optional.empty();
+        }
+        int index = ThreadLocalRandom.current().nextInt(patients.size());
+        PatientDto last = patients.remove(patients.size() - 1);
+        return Optional.of(index < patients.size() ? patients.set(index, last) : last);
+    }
+
+    public synchronized int size() {
+        return patients.size();
+    }
+}
\ No newline at end of file
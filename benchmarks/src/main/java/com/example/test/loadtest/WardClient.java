@@ -0,0 +1,196 @@
+package com.example.test.loadtest;
+
+import com.example.test.controller.dto.PatientDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Paced client: intends to start a request every request interval, choosing operations randomly by their weights
+ * in the mix. Latency is measured from the intended start, so when the application stalls, requests which would have
+ * been sent meanwhile are delayed and counted too, instead of being omitted.
+ */
+public class WardClient implements Runnable {
+
+    private static final String PATIENT_PATH = "/api/v1/patient";
+    private static final String JSON = "application/json";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Map<WardOperation, Integer> mix;
+    private final int totalWeight;
+    private final long requestIntervalNanos;
+    private final Ward ward;
+    private final String namePrefix;
+    private final AtomicLong admissions;
+    private final LoadStatistics statistics;
+    private final AtomicBoolean running;
+
+    private String censusETag;
+    private long intendedStart;
+
+    public WardClient(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, LoadTestSettings settings,
+                      Ward ward, String namePrefix, AtomicLong admissions, LoadStatistics statistics, AtomicBoolean running) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.mix = settings.mix();
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.requestIntervalNanos = settings.requestInterval().toNanos();
+        this.ward = ward;
+        this.namePrefix = namePrefix;
+        this.admissions = admissions;
+        this.statistics = statistics;
+        this.running = running;
+    }
+
+    @Override
+    public void run() {
+        // Random offset keeps clients from sending in bursts
+        intendedStart = System.nanoTime() + ThreadLocalRandom.current().nextLong(requestIntervalNanos);
+        try {
+            while (running.get()) {
+                long delay = intendedStart - System.nanoTime();
+                if (delay > 0) {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                }
+                send(nextOperation());
+                intendedStart += requestIntervalNanos;
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Method for creating patient which is not admitted yet.
+     * Name prefix should be unique for every run, so that runs against the same database do not conflict.
+     */
+    public static PatientDto newPatient(String namePrefix, long number) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return PatientDto.builder()
+                .name(namePrefix + number)
+                .birthDate(LocalDate.of(1940, 1, 1).plusDays(random.nextInt(30_000)))
+                .lastTemperature(36.0 + random.nextInt(40) / 10.0)
+                .lastPulse(random.nextInt(50, 130))
+                .build();
+    }
+
+    private WardOperation nextOperation() {
+        int weight = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<WardOperation, Integer> entry : mix.entrySet()) {
+            weight -= entry.getValue();
+            if (weight < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Operation weights changed");
+    }
+
+    private void send(WardOperation operation) throws InterruptedException {
+        // Patient is admitted instead of update or discharge when the ward is empty
+        switch (operation) {
+            case ADMIT -> admit();
+            case UPDATE -> update(ward.takeRandomPatient());
+            case DISCHARGE -> discharge(ward.takeRandomPatient());
+            case CENSUS -> census();
+        }
+    }
+
+    private void admit() throws InterruptedException {
+        HttpResponse<byte[]> response = send(WardOperation.ADMIT,
+                patch("/add", newPatient(namePrefix, admissions.incrementAndGet())));
+        if (response != null && response.statusCode() == 200) {
+            try {
+                ward.admit(objectMapper.readValue(response.body(), PatientDto.class));
+            } catch (IOException exception) {
+                throw new IllegalStateException("Unexpected response to admission", exception);
+            }
+        }
+    }
+
+    /**
+     * Patient is out of the ward while it is updated, so it is not discharged by another client at the same time.
+     */
+    private void update(Optional<PatientDto> patientDto) throws InterruptedException {
+        if (patientDto.isEmpty()) {
+            admit();
+            return;
+        }
+        PatientDto changed = PatientDto.builder()
+                .name(patientDto.get().getName())
+                .birthDate(patientDto.get().getBirthDate())
+                .lastTemperature(36.0 + ThreadLocalRandom.current().nextInt(40) / 10.0)
+                .lastPulse(ThreadLocalRandom.current().nextInt(50, 130))
+                .build();
+        try {
+            send(WardOperation.UPDATE, patch("/" + patientDto.get().getId() + "/update", changed));
+        } finally {
+            ward.admit(patientDto.get());
+        }
+    }
+
+    private void discharge(Optional<PatientDto> patientDto) throws InterruptedException {
+        if (patientDto.isEmpty()) {
+            admit();
+            return;
+        }
+        send(WardOperation.DISCHARGE, patch("/" + patientDto.get().getId() + "/discharge", null));
+    }
+
+    private void census() throws InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri("/all-not-discharged")).GET();
+        if (censusETag != null) {
+            request.header("If-None-Match", censusETag);
+        }
+        HttpResponse<byte[]> response = send(WardOperation.CENSUS, request.build());
+        if (response != null && response.statusCode() == 200) {
+            censusETag = response.headers().firstValue("ETag").orElse(null);
+        }
+    }
+
+    private HttpRequest patch(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(uri(path))
+                    .header("Content-Type", JSON)
+                    .method("PATCH", body == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + PATIENT_PATH + path);
+    }
+
+    /**
+     * Returns null when there was no response at all.
+     */
+    private HttpResponse<byte[]> send(WardOperation operation, HttpRequest request) throws InterruptedException {
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            int status = response.statusCode();
+            statistics.record(operation, System.nanoTime() - intendedStart, status == 200 || status == 304);
+            return response;
+        } catch (IOException exception) {
+            statistics.record(operation, System.nanoTime() - intendedStart, false);
+            return null;
+        }
+    }
+}
\ No newline at end of file
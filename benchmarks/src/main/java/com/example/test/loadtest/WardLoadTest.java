@@ -0,0 +1,200 @@
+package com.example.test.loadtest;
+
+import com.example.test.TestApplication;
+import com.example.test.controller.dto.PatientBatchResultDto;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.loadtest.LoadStatistics.OperationResult;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the application through its HTTP API with a mix of ward operations.
+ * Every step runs more concurrent clients, the throughput ceiling is the best step which meets all SLOs.
+ * Prints report for every step and stores latency histograms to "results/loadtest-<start time>.hlog",
+ * exits with status 1 when the ceiling is below the required throughput.
+ */
+public class WardLoadTest {
+
+    private static final String RESULTS_DIRECTORY = "results";
+    private static final PrintStream OUT = System.out;
+
+    private final LoadTestSettings settings;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Ward ward = new Ward();
+    private final AtomicLong admissions = new AtomicLong();
+    // Patient names are limited to 30 characters
+    private final String namePrefix = "Ward " + Long.toString(System.currentTimeMillis(), Character.MAX_RADIX) + "-";
+
+    public WardLoadTest(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.load(args);
+        boolean passed;
+
+        if (settings.baseUrl().isEmpty()) {
+            try (EmbeddedPostgres postgres = EmbeddedPostgres.start();
+                 ConfigurableApplicationContext context = startApplication(postgres)) {
+                String port = context.getEnvironment().getProperty("local.server.port");
+                passed = new WardLoadTest(settings).run("http://localhost:" + port);
+            }
+        } else {
+            passed = new WardLoadTest(settings).run(settings.baseUrl());
+        }
+
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext startApplication(EmbeddedPostgres postgres) {
+        return new SpringApplicationBuilder(TestApplication.class)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+    }
+
+    /**
+     * Method for running all steps against the instance, returns whether SLOs are met.
+     */
+    public boolean run(String baseUrl) throws IOException, InterruptedException {
+        admitInitialPatients(baseUrl);
+
+        new File(RESULTS_DIRECTORY).mkdirs();
+        File histogramLog = new File(RESULTS_DIRECTORY, "loadtest-" + System.currentTimeMillis() + ".hlog");
+        double ceiling = 0;
+        int ceilingClients = 0;
+
+        try (PrintStream log = new PrintStream(histogramLog)) {
+            HistogramLogWriter logWriter = new HistogramLogWriter(log);
+            logWriter.outputLogFormatVersion();
+            logWriter.outputLegend();
+
+            for (int clients : settings.clients()) {
+                Map<WardOperation, OperationResult> results = runStep(baseUrl, clients);
+                double throughput = results.values().stream().mapToLong(OperationResult::requests).sum()
+                        / (settings.duration().toMillis() / 1000.0);
+                boolean stepPassed = report(clients, throughput, results);
+
+                for (Map.Entry<WardOperation, OperationResult> entry : results.entrySet()) {
+                    Histogram latencies = entry.getValue().latencies();
+                    latencies.setTag("clients-" + clients + "-" + entry.getKey().key());
+                    logWriter.outputIntervalHistogram(latencies);
+                }
+
+                if (stepPassed && throughput > ceiling) {
+                    ceiling = throughput;
+                    ceilingClients = clients;
+                }
+            }
+        }
+
+        boolean passed = ceiling >= settings.minThroughput();
+        OUT.printf("%nThroughput ceiling within SLOs: %.1f requests/s with %d clients, required %.1f: %s%n",
+                ceiling, ceilingClients, settings.minThroughput(), passed ? "PASSED" : "FAILED");
+        OUT.printf("Latency histograms are stored to %s, latencies are in microseconds%n", histogramLog.getPath());
+        return passed;
+    }
+
+    private void admitInitialPatients(String baseUrl) throws IOException, InterruptedException {
+        List<PatientDto> patients = new ArrayList<>();
+        for (int i = 0; i < settings.initialPatients(); i++) {
+            patients.add(WardClient.newPatient(namePrefix, admissions.incrementAndGet()));
+        }
+        if (patients.isEmpty()) {
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/patient/add/batch"))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(patients)))
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Initial patients are not admitted, status " + response.statusCode());
+        }
+
+        objectMapper.readValue(response.body(), new TypeReference<List<PatientBatchResultDto>>() {
+        }).stream()
+                .map(PatientBatchResultDto::getPatient)
+                .forEach(ward::admit);
+    }
+
+    private Map<WardOperation, OperationResult> runStep(String baseUrl, int clients) throws InterruptedException {
+        LoadStatistics statistics = new LoadStatistics();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            executor.execute(new WardClient(httpClient, objectMapper, baseUrl, settings,
+                    ward, namePrefix, admissions, statistics, running));
+        }
+
+        Thread.sleep(settings.warmup().toMillis());
+        statistics.takeInterval();
+        Thread.sleep(settings.duration().toMillis());
+        Map<WardOperation, OperationResult> results = statistics.takeInterval();
+
+        running.set(false);
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return results;
+    }
+
+    private boolean report(int clients, double throughput, Map<WardOperation, OperationResult> results) {
+        long requests = results.values().stream().mapToLong(OperationResult::requests).sum();
+        long errors = results.values().stream().mapToLong(OperationResult::errors).sum();
+        double errorRate = requests == 0 ? 1 : (double) errors / requests;
+        boolean passed = errorRate <= settings.maxErrorRate();
+
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-10s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "SLO p99"));
+        for (Map.Entry<WardOperation, OperationResult> entry : results.entrySet()) {
+            Histogram latencies = entry.getValue().latencies();
+            Duration maxLatency = settings.maxLatency().get(entry.getKey());
+            boolean latencyMet = latencies.getValueAtPercentile(99) <= TimeUnit.MILLISECONDS.toMicros(maxLatency.toMillis());
+            passed &= latencyMet;
+
+            table.append(String.format("%-10s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %6d %s%n",
+                    entry.getKey().key(), entry.getValue().requests(), entry.getValue().errors(),
+                    millis(latencies, 50), millis(latencies, 90), millis(latencies, 99), millis(latencies, 99.9),
+                    latencies.getMaxValue() / 1000.0, maxLatency.toMillis(), latencyMet ? "ok" : "FAILED"));
+        }
+
+        OUT.printf("%n%d clients: %.1f requests/s, error rate %.2f%% (max %.2f%%), %d patients in the ward: %s%n",
+                clients, throughput, errorRate * 100, settings.maxErrorRate() * 100, ward.size(),
+                passed ? "PASSED" : "FAILED");
+        OUT.print(table);
+        return passed;
+    }
+
+    private static double millis(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
\ No newline at end of file
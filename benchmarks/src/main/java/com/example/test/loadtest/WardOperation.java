@@ -0,0 +1,36 @@
+package com.example.test.loadtest;
+
+/**
+ * Requests which ward staff send to the application.
+ */
+public enum WardOperation {
+    /**
+     * New patient is admitted to the ward.
+     */
+    ADMIT("admit"),
+    /**
+     * Information about patient in the ward is changed.
+     */
+    UPDATE("update"),
+    /**
+     * Patient leaves the ward.
+     */
+    DISCHARGE("discharge"),
+    /**
+     * Dashboard polls list of not discharged patients.
+     */
+    CENSUS("census");
+
+    private final String key;
+
+    WardOperation(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Name of the operation in load test settings and reports.
+     */
+    public String key() {
+        return key;
+    }
+}
\ No newline at end of file
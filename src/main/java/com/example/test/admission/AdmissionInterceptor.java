@@ -0,0 +1,58 @@
+package com.example.test.admission;
+
+import com.example.test.exception.ServiceOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Admits requests of one bulkhead through the {@link AdmissionQueue} and answers shed ones with 503 and Retry-After.
+ * Asynchronous request is released when its handler returns, before the response is written.
+ */
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String OVERLOADED = "Service is overloaded, retry later!";
+
+    private final AdmissionQueue admissionQueue;
+    private final AdmissionQueue.Bulkhead bulkhead;
+    private final Duration retryAfter;
+    private final String admittedAttribute;
+
+    public AdmissionInterceptor(AdmissionQueue admissionQueue, AdmissionQueue.Bulkhead bulkhead, Duration retryAfter) {
+        this.admissionQueue = admissionQueue;
+        this.bulkhead = bulkhead;
+        this.retryAfter = retryAfter;
+        this.admittedAttribute = AdmissionInterceptor.class.getName() + "." + bulkhead.getName();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (!admissionQueue.acquire(bulkhead)) {
+            throw new ServiceOverloadedException(OVERLOADED, retryAfter);
+        }
+        request.setAttribute(admittedAttribute, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception exception) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(admittedAttribute) != null) {
+            request.removeAttribute(admittedAttribute);
+            admissionQueue.release(bulkhead);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,212 @@
+package com.example.test.admission;
+
+import com.example.test.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits requests of the bulkheads while both the bulkhead and the whole queue are under their concurrency limits.
+ * Requests over the limits wait in a bounded queue ordered by bulkhead priority and arrival, and are shed
+ * when the queue of their bulkhead is full, when they wait longer than max wait or when requests of a higher
+ * priority are already waiting, so that a burst of low priority requests never delays the high priority ones.
+ */
+public class AdmissionQueue {
+
+    public static final String SHED_METRIC = "patient.admission.shed";
+    public static final String QUEUE_FULL = "queue-full";
+    public static final String TIMEOUT = "timeout";
+    public static final String PRIORITY = "priority";
+
+    private static final Comparator<Waiter> WAITER_ORDER = Comparator
+            .comparingInt((Waiter waiter) -> -waiter.bulkhead.priority)
+            .thenComparingLong(waiter -> waiter.sequence);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int maxConcurrent;
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+    private final NavigableSet<Waiter> waiters = new TreeSet<>(WAITER_ORDER);
+    private final MeterRegistry meterRegistry;
+
+    private int inFlight;
+    private long nextSequence;
+
+    public AdmissionQueue(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.maxConcurrent = properties.getMaxConcurrent();
+        this.meterRegistry = meterRegistry;
+        for (AdmissionProperties.Bulkhead bulkhead : properties.getBulkheads()) {
+            bulkheads.put(bulkhead.getName(), new Bulkhead(bulkhead));
+        }
+    }
+
+    public Map<String, Bulkhead> getBulkheads() {
+        return bulkheads;
+    }
+
+    /**
+     * Waits until the request is admitted or shed. Admitted request must be released when it completes.
+     *
+     * @return true when the request is admitted, false when it is shed
+     */
+    public boolean acquire(Bulkhead bulkhead) throws InterruptedException {
+        lock.lock();
+        try {
+            // Waiters are admitted as soon as possible on release, so none of them could run now instead
+            if (canRun(bulkhead)) {
+                admit(bulkhead);
+                return true;
+            }
+            if (bulkhead.queued >= bulkhead.maxQueued) {
+                return shed(bulkhead, QUEUE_FULL);
+            }
+            if (!waiters.isEmpty() && waiters.first().bulkhead.priority > bulkhead.priority) {
+                return shed(bulkhead, PRIORITY);
+            }
+
+            Waiter waiter = new Waiter(bulkhead, nextSequence++, lock.newCondition());
+            waiters.add(waiter);
+            bulkhead.queued++;
+            long nanos = bulkhead.maxWait.toNanos();
+            try {
+                while (!waiter.admitted) {
+                    if (nanos <= 0) {
+                        waiters.remove(waiter);
+                        bulkhead.queued--;
+                        return shed(bulkhead, TIMEOUT);
+                    }
+                    nanos = waiter.condition.awaitNanos(nanos);
+                }
+                return true;
+            } catch (InterruptedException exception) {
+                if (waiter.admitted) {
+                    releaseLocked(bulkhead);
+                } else {
+                    waiters.remove(waiter);
+                    bulkhead.queued--;
+                }
+                throw exception;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Bulkhead bulkhead) {
+        lock.lock();
+        try {
+            releaseLocked(bulkhead);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked(Bulkhead bulkhead) {
+        inFlight--;
+        bulkhead.inFlight--;
+
+        for (Iterator<Waiter> iterator = waiters.iterator(); iterator.hasNext() && inFlight < maxConcurrent; ) {
+            Waiter waiter = iterator.next();
+            if (waiter.bulkhead.inFlight < waiter.bulkhead.maxConcurrent) {
+                iterator.remove();
+                waiter.bulkhead.queued--;
+                admit(waiter.bulkhead);
+                waiter.admitted = true;
+                waiter.condition.signal();
+            }
+        }
+    }
+
+    private boolean canRun(Bulkhead bulkhead) {
+        return inFlight < maxConcurrent && bulkhead.inFlight < bulkhead.maxConcurrent;
+    }
+
+    private void admit(Bulkhead bulkhead) {
+        inFlight++;
+        bulkhead.inFlight++;
+    }
+
+    private boolean shed(Bulkhead bulkhead, String reason) {
+        Counter.builder(SHED_METRIC)
+                .description("Requests rejected because the service is overloaded")
+                .tag("bulkhead", bulkhead.name)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return false;
+    }
+
+    /**
+     * Concurrency limit of requests of some endpoints, counters are guarded by the queue lock.
+     */
+    public final class Bulkhead {
+
+        private final String name;
+        private final int priority;
+        private final int maxConcurrent;
+        private final int maxQueued;
+        private final Duration maxWait;
+
+        private int inFlight;
+        private int queued;
+
+        private Bulkhead(AdmissionProperties.Bulkhead properties) {
+            this.name = properties.getName();
+            this.priority = properties.getPriority();
+            this.maxConcurrent = properties.getMaxConcurrent();
+            this.maxQueued = properties.getMaxQueued();
+            this.maxWait = properties.getMaxWait();
+            Gauge.builder("patient.admission.in.flight", this, Bulkhead::getInFlight)
+                    .tag("bulkhead", name)
+                    .register(meterRegistry);
+            Gauge.builder("patient.admission.queued", this, Bulkhead::getQueued)
+                    .tag("bulkhead", name)
+                    .register(meterRegistry);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getInFlight() {
+            lock.lock();
+            try {
+                return inFlight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public int getQueued() {
+            lock.lock();
+            try {
+                return queued;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        private final Bulkhead bulkhead;
+        private final long sequence;
+        private final Condition condition;
+        private boolean admitted;
+
+        Waiter(Bulkhead bulkhead, long sequence, Condition condition) {
+            this.bulkhead = bulkhead;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+    }
+}
\ No newline at end of file
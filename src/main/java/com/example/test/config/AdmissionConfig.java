@@ -0,0 +1,60 @@
+package com.example.test.config;
+
+import com.example.test.admission.AdmissionInterceptor;
+import com.example.test.admission.AdmissionQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Limits concurrent requests of every bulkhead of patient.admission, each one on its own path patterns.
+ * Limits over the connection pool size are rejected at startup: requests admitted over the pool would block
+ * on the pool for its connection timeout instead of being shed at once.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "patient.admission", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private static final String POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final AdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    @Bean
+    public AdmissionQueue admissionQueue() {
+        int poolSize = environment.getProperty(POOL_SIZE, Integer.class, DEFAULT_POOL_SIZE);
+        checkNotOverPool("patient.admission.max-concurrent", properties.getMaxConcurrent(), poolSize);
+        for (AdmissionProperties.Bulkhead bulkhead : properties.getBulkheads()) {
+            checkNotOverPool("max-concurrent of patient.admission bulkhead " + bulkhead.getName(),
+                    bulkhead.getMaxConcurrent(), poolSize);
+        }
+        return new AdmissionQueue(properties, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        AdmissionQueue admissionQueue = admissionQueue();
+        for (AdmissionProperties.Bulkhead bulkhead : properties.getBulkheads()) {
+            registry.addInterceptor(new AdmissionInterceptor(admissionQueue,
+                            admissionQueue.getBulkheads().get(bulkhead.getName()), properties.getRetryAfter()))
+                    .addPathPatterns(bulkhead.getPaths());
+        }
+    }
+
+    private static void checkNotOverPool(String limit, int maxConcurrent, int poolSize) {
+        if (maxConcurrent > poolSize) {
+            throw new IllegalArgumentException(limit + " (" + maxConcurrent + ") must not exceed " + POOL_SIZE
+                    + " (" + poolSize + "), otherwise admitted requests wait for a connection instead of being shed");
+        }
+    }
+}
\ No newline at end of file
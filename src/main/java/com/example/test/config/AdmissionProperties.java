@@ -0,0 +1,58 @@
+package com.example.test.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "patient.admission")
+public class AdmissionProperties {
+
+    /**
+     * Limits concurrent requests of the bulkheads, otherwise every request is let through.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Number of requests of all bulkheads processed at once, must not exceed the connection pool size.
+     */
+    private int maxConcurrent = 10;
+
+    /**
+     * Sent in Retry-After header of the shed requests.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private List<Bulkhead> bulkheads = new ArrayList<>();
+
+    @Data
+    public static class Bulkhead {
+
+        private String name;
+
+        /**
+         * Path patterns of the requests limited by the bulkhead.
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * Queued requests of the bulkhead with higher priority are admitted first.
+         */
+        private int priority = 0;
+
+        private int maxConcurrent = 10;
+
+        /**
+         * Number of requests waiting for admission, the next ones are shed at once.
+         */
+        private int maxQueued = 50;
+
+        /**
+         * Time after which a queued request is shed.
+         */
+        private Duration maxWait = Duration.ofSeconds(1);
+    }
+}
\ No newline at end of file
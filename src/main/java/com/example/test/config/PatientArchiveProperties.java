@@ -0,0 +1,28 @@
+package com.example.test.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "patient.archive")
+public class PatientArchiveProperties {
+
+    /**
+     * Runs the archiver in the background, otherwise discharged patients stay in the patient table.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Time since discharge after which a patient is moved to the archive.
+     */
+    private Duration minDischargedAge = Duration.ofDays(30);
+
+    /**
+     * Number of patients moved in one transaction.
+     */
+    private int batchSize = 1000;
+
+    private Duration interval = Duration.ofHours(1);
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.example.test.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "patient.feed")
+public class PatientFeedProperties {
+
+    /**
+     * Max number of events waiting for sending to one subscriber, slower subscribers are disconnected.
+     */
+    private int queueCapacity = 256;
+
+    /**
+     * Number of threads which send events to all subscribers.
+     */
+    private int senderThreads = 4;
+
+    /**
+     * Time one send may take, a subscriber which does not read longer than that is disconnected.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Stalled sends keep their threads until the server write timeout, this many of them are replaced
+     * by new sender threads, further ones hold a sender thread until then.
+     */
+    private int maxStalledSenders = 64;
+
+    /**
+     * Interval of comments sent to idle subscribers to find closed connections.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+    /**
+     * Time after which subscription is closed, clients are expected to reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
\ No newline at end of file
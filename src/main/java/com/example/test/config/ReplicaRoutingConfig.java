@@ -0,0 +1,90 @@
+package com.example.test.config;
+
+import com.example.test.datasource.ReadYourWritesFilter;
+import com.example.test.datasource.ReplicaRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to the replicas and everything else to spring.datasource, the primary.
+ * Connection is fetched lazily on the first statement, when it is already known whether the transaction is read-only.
+ * Second-level cache of patients is not supported with replicas: it is evicted after commit, and the next lookup
+ * could fill it from a replica which has not replayed the change yet, keeping the old state far longer than max lag.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "patient.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    private static final String HIKARI_PROPERTIES = "spring.datasource.hikari";
+    private static final String SECOND_LEVEL_CACHE = "spring.jpa.properties.hibernate.cache.use_second_level_cache";
+
+    @Bean
+    public ReplicaRouter replicaRouter(DataSourceProperties dataSourceProperties, ReplicaRoutingProperties properties,
+                                       Environment environment, MeterRegistry meterRegistry) {
+        if (environment.getProperty(SECOND_LEVEL_CACHE, Boolean.class, false)) {
+            throw new IllegalArgumentException("patient.replicas cannot be enabled together with " + SECOND_LEVEL_CACHE
+                    + ", a patient read from a lagging replica after eviction would stay cached for the whole expiry");
+        }
+        // Replica may lag up to max lag plus one check interval before it is taken out of rotation
+        Duration maxStaleness = properties.getMaxLag().plus(properties.getHealthCheckInterval());
+        if (properties.getReadYourWritesWindow().compareTo(maxStaleness) < 0) {
+            throw new IllegalArgumentException("patient.replicas.read-your-writes-window must be at least max-lag"
+                    + " plus health-check-interval (" + maxStaleness + "), otherwise clients read their writes stale");
+        }
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName(ReplicaRouter.PRIMARY);
+        Binder.get(environment).bind(HIKARI_PROPERTIES, Bindable.ofInstance(primary));
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (ReplicaRoutingProperties.Replica replica : properties.getDatasources()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername() != null
+                            ? replica.getUsername() : dataSourceProperties.determineUsername())
+                    .password(replica.getPassword() != null
+                            ? replica.getPassword() : dataSourceProperties.determinePassword())
+                    .build();
+            Binder.get(environment).bind(HIKARI_PROPERTIES, Bindable.ofInstance(dataSource));
+            dataSource.setPoolName("replica-" + (replicas.size() + 1));
+            dataSource.setMaximumPoolSize(properties.getPoolSize());
+            dataSource.setReadOnly(true);
+            dataSource.setMetricRegistry(meterRegistry);
+            replicas.add(dataSource);
+        }
+
+        return new ReplicaRouter(primary, replicas, properties.getMaxLag(), properties.getHealthCheckInterval(),
+                meterRegistry);
+    }
+
+    @Bean
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRouter.getPrimary());
+        dataSource.setReadOnlyDataSource(replicaRouter.getReadOnlyDataSource());
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaRoutingProperties properties) {
+        return new ReadYourWritesFilter(properties.getReadYourWritesWindow());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.example.test.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "patient.replicas")
+public class ReplicaRoutingProperties {
+
+    /**
+     * Sends read-only transactions to the replicas, otherwise every statement goes to spring.datasource.
+     */
+    private boolean enabled = false;
+
+    private List<Replica> datasources = new ArrayList<>();
+
+    /**
+     * Maximum size of every replica pool, other pool settings are taken from spring.datasource.hikari.
+     */
+    private int poolSize = 10;
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * Replica which replays changes of primary later than that is not used until it catches up.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Time after a write request during which reads of the same client go to the primary.
+     * Must cover max lag plus health check interval, which is checked at startup.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(10);
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        /**
+         * Username and password of spring.datasource are used when not set.
+         */
+        private String username;
+
+        private String password;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.example.test.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "patient.alerts")
+public class VitalsAlertProperties {
+
+    /**
+     * Rules evaluated on every change of patient vitals, at most 64.
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    public enum Vital {
+        TEMPERATURE,
+        PULSE
+    }
+
+    /**
+     * Alert is raised while any of configured conditions holds, so the band is given by both above and below.
+     */
+    @Data
+    public static class Rule {
+
+        private String name;
+
+        private Vital vital;
+
+        /**
+         * Value above which alert is raised.
+         */
+        private Double above;
+
+        /**
+         * Value below which alert is raised.
+         */
+        private Double below;
+
+        /**
+         * Growth since the previous value of the patient which raises alert.
+         */
+        private Double rise;
+
+        /**
+         * Max time since the previous value for rise to count as a trend.
+         */
+        private Duration within = Duration.ofHours(6);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.test.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "patient.vitals.buffer")
+public class VitalsBufferProperties {
+
+    /**
+     * Max number of readings waiting for flush, new readings are rejected when it is reached.
+     */
+    private int capacity = 10_000;
+
+    /**
+     * Number of readings which triggers flush before flush interval ends.
+     */
+    private int batchSize = 500;
+
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Number of attempts to save a batch, the batch is dropped after the last failed one.
+     */
+    private int maxSaveAttempts = 5;
+
+    /**
+     * Pause after the first failed attempt, it doubles after every next one.
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.example.test.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "patient.ward-statistics")
+public class WardStatisticsProperties {
+
+    /**
+     * Interval of rebuilding statistics from database, catches changes which bypass the service.
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(10);
+}
\ No newline at end of file
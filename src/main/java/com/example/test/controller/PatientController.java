@@ -1,38 +1,203 @@
 package com.example.test.controller;
 
+import com.example.test.controller.dto.PatientBatchDischargeDto;
+import com.example.test.controller.dto.PatientBatchResultDto;
 import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.PatientImportResultDto;
+import com.example.test.controller.dto.PatientPageDto;
+import com.example.test.controller.dto.PatientVitalsDto;
+import com.example.test.controller.dto.WardStatisticsDto;
+import com.example.test.exception.IncorrectRequestParameterException;
 import com.example.test.service.PatientService;
+import com.example.test.service.cache.PatientsSnapshot;
+import com.example.test.service.feed.PatientFeedSubscription;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RequestMapping(path = "/api/v1/patient")
 public class PatientController {
 
+    public static final String DEFAULT_PAGE_LIMIT = "50";
+    public static final String DEFAULT_SEARCH_LIMIT = "20";
+    public static final String INCORRECT_IF_MATCH = "If-Match header must contain patient version from ETag header!";
+    public static final String INCORRECT_BIRTH_DATE_RANGE = "Birth date range must not end before it starts!";
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
     private final PatientService patientService;
+    private final ObjectMapper objectMapper;
 
     @PatchMapping(path = "/add")
     public ResponseEntity<PatientDto> addNewPatient(@RequestBody PatientDto patientDto) {
-        return ResponseEntity.ok(patientService.addNewPatient(patientDto));
+        return withETag(patientService.addNewPatient(patientDto));
+    }
+
+    @PatchMapping(path = "/add/batch")
+    public ResponseEntity<List<PatientBatchResultDto>> addNewPatients(@RequestBody List<PatientDto> patientDtoList) {
+        return ResponseEntity.ok(patientService.addNewPatients(patientDtoList));
+    }
+
+    @PatchMapping(path = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<PatientImportResultDto> importPatients(InputStream csv) {
+        return ResponseEntity.ok(patientService.importPatients(csv));
     }
 
     @PatchMapping(path = "/{id}/update")
-    public ResponseEntity<PatientDto> changeInformationAboutPatient(@PathVariable UUID id, @RequestBody PatientDto patientDto) {
-        return ResponseEntity.ok(patientService.changeInformationAboutPatient(id, patientDto));
+    public ResponseEntity<PatientDto> changeInformationAboutPatient(@PathVariable UUID id, @RequestBody PatientDto patientDto,
+                                                                    @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(patientService.changeInformationAboutPatient(id, patientDto, toExpectedVersion(ifMatch)));
     }
 
     @PatchMapping(path = "/{id}/discharge")
-    public ResponseEntity<PatientDto> dischargePatient(@PathVariable UUID id) {
-        return ResponseEntity.ok(patientService.dischargePatient(id));
+    public ResponseEntity<PatientDto> dischargePatient(@PathVariable UUID id,
+                                                       @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(patientService.dischargePatient(id, toExpectedVersion(ifMatch)));
+    }
+
+    @PatchMapping(path = "/discharge/batch")
+    public ResponseEntity<PatientBatchDischargeDto> dischargePatients(@RequestBody List<UUID> ids) {
+        return ResponseEntity.ok(patientService.dischargePatients(ids));
+    }
+
+    @PatchMapping(path = "/{id}/vitals")
+    public ResponseEntity<Void> addVitals(@PathVariable UUID id, @RequestBody PatientVitalsDto patientVitalsDto) {
+        patientService.addVitals(id, patientVitalsDto);
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping(path = "/{id}")
+    public ResponseEntity<PatientDto> getPatient(@PathVariable UUID id) {
+        return withETag(patientService.getPatient(id));
     }
 
     @GetMapping(path = "/all-not-discharged")
-    public ResponseEntity<List<PatientDto>> getAllNotDischargedPatients() {
-        return ResponseEntity.ok(patientService.getAllNotDischargedPatients());
+    public ResponseEntity<byte[]> getAllNotDischargedPatients(WebRequest webRequest) {
+        PatientsSnapshot snapshot = patientService.getNotDischargedPatientsSnapshot();
+
+        if (webRequest.checkNotModified(snapshot.eTag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(snapshot.eTag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.body());
+    }
+
+    @GetMapping(path = "/statistics")
+    public ResponseEntity<WardStatisticsDto> getWardStatistics() {
+        return ResponseEntity.ok(patientService.getWardStatistics());
+    }
+
+    @GetMapping(path = "/search")
+    public ResponseEntity<List<PatientDto>> searchPatients(@RequestParam String query,
+                                                           @RequestParam(defaultValue = "false") boolean activeOnly,
+                                                           @RequestParam(defaultValue = DEFAULT_SEARCH_LIMIT) int limit) {
+        return ResponseEntity.ok(patientService.searchPatients(query, activeOnly, limit));
+    }
+
+    /**
+     * Streams matching patients as newline-delimited JSON, gzipped if client accepts it.
+     * Rows are written as soon as they are read, so memory does not depend on the number of patients.
+     */
+    @GetMapping(path = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPatients(
+            @RequestParam(required = false) Boolean isDischarged,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate birthDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate birthDateTo,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Checked before streaming starts, errors thrown from the stream can not change the response any more
+        if (birthDateFrom != null && birthDateTo != null && birthDateFrom.isAfter(birthDateTo)) {
+            throw new IncorrectRequestParameterException(INCORRECT_BIRTH_DATE_RANGE);
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream) : outputStream;
+            try (JsonGenerator generator = objectMapper.createGenerator(target)) {
+                generator.setRootValueSeparator(null);
+                patientService.exportPatients(isDischarged, birthDateFrom, birthDateTo,
+                        patient -> writeLine(generator, patient));
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping(path = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToPatientChanges() {
+        // Never times out on its own, the feed closes the subscription after its timeout
+        SseEmitter emitter = new SseEmitter(0L);
+        PatientFeedSubscription subscription =
+                patientService.subscribeToPatientChanges(new SsePatientFeedSubscriber(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(exception -> subscription.cancel());
+        return emitter;
+    }
+
+    @GetMapping(path = "/not-discharged")
+    public ResponseEntity<PatientPageDto> getNotDischargedPatientsPage(@RequestParam(required = false) String after,
+                                                                       @RequestParam(defaultValue = DEFAULT_PAGE_LIMIT) int limit) {
+        return ResponseEntity.ok(patientService.getNotDischargedPatientsPage(after, limit));
+    }
+
+    private ResponseEntity<PatientDto> withETag(PatientDto patientDto) {
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(patientDto.getVersion()))
+                .body(patientDto);
+    }
+
+    private static void writeLine(JsonGenerator generator, PatientDto patientDto) {
+        try {
+            generator.writeObject(patientDto);
+            generator.writeRaw('\n');
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Reads the patient version from If-Match header, the same value is sent in ETag header.
+     */
+    static Long toExpectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.equals("*")) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(ifMatch.replaceFirst("^W/", "").replace("\"", ""));
+        } catch (NumberFormatException exception) {
+            throw new IncorrectRequestParameterException(INCORRECT_IF_MATCH);
+        }
     }
 }
\ No newline at end of file
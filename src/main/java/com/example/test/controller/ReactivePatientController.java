@@ -0,0 +1,75 @@
+package com.example.test.controller;
+
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.PatientPageDto;
+import com.example.test.service.ReactivePatientService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+import static com.example.test.controller.PatientController.APPLICATION_NDJSON_VALUE;
+import static com.example.test.controller.PatientController.DEFAULT_PAGE_LIMIT;
+import static com.example.test.controller.PatientController.toExpectedVersion;
+
+/**
+ * WebFlux routes of {@link PatientController} for the "reactive" profile, served without a thread per request.
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/patient")
+public class ReactivePatientController {
+
+    private final ReactivePatientService patientService;
+
+    @PatchMapping(path = "/add")
+    public Mono<ResponseEntity<PatientDto>> addNewPatient(@RequestBody PatientDto patientDto) {
+        return patientService.addNewPatient(patientDto).map(ReactivePatientController::withETag);
+    }
+
+    @PatchMapping(path = "/{id}/update")
+    public Mono<ResponseEntity<PatientDto>> changeInformationAboutPatient(@PathVariable UUID id, @RequestBody PatientDto patientDto,
+                                                                          @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return patientService.changeInformationAboutPatient(id, patientDto, toExpectedVersion(ifMatch))
+                .map(ReactivePatientController::withETag);
+    }
+
+    @PatchMapping(path = "/{id}/discharge")
+    public Mono<ResponseEntity<PatientDto>> dischargePatient(@PathVariable UUID id,
+                                                             @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return patientService.dischargePatient(id, toExpectedVersion(ifMatch))
+                .map(ReactivePatientController::withETag);
+    }
+
+    @GetMapping(path = "/{id}")
+    public Mono<ResponseEntity<PatientDto>> getPatient(@PathVariable UUID id) {
+        return patientService.getPatient(id).map(ReactivePatientController::withETag);
+    }
+
+    /**
+     * Streams the census as JSON array, or as newline-delimited JSON when the client accepts it.
+     */
+    @GetMapping(path = "/all-not-discharged", produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public Flux<PatientDto> getAllNotDischargedPatients() {
+        return patientService.getAllNotDischargedPatients();
+    }
+
+    @GetMapping(path = "/not-discharged")
+    public Mono<PatientPageDto> getNotDischargedPatientsPage(@RequestParam(required = false) String after,
+                                                             @RequestParam(defaultValue = DEFAULT_PAGE_LIMIT) int limit) {
+        return patientService.getNotDischargedPatientsPage(after, limit);
+    }
+
+    private static ResponseEntity<PatientDto> withETag(PatientDto patientDto) {
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(patientDto.getVersion()))
+                .body(patientDto);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.example.test.controller;
+
+import com.example.test.service.feed.PatientFeedEvent;
+import com.example.test.service.feed.PatientFeedSubscriber;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Sends events of the patient feed as Server-Sent Events.
+ */
+class SsePatientFeedSubscriber implements PatientFeedSubscriber {
+
+    private final SseEmitter emitter;
+
+    SsePatientFeedSubscriber(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(PatientFeedEvent event) throws IOException {
+        if (event.isHeartbeat()) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+            return;
+        }
+
+        SseEmitter.SseEventBuilder sseEvent = SseEmitter.event().name(event.name());
+        if (event.id() != null) {
+            sseEvent.id(event.id());
+        }
+        emitter.send(sseEvent.data(event.data(), MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.test.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientBatchDischargeDto {
+    private List<PatientDto> discharged;
+
+    /**
+     * Requested ids of patients which do not exist or have been discharged before.
+     */
+    private List<UUID> notDischargedIds;
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.test.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientBatchResultDto {
+    private String name;
+    private PatientBatchStatus status;
+
+    /**
+     * Added patient, null when the patient has been rejected.
+     */
+    private PatientDto patient;
+}
\ No newline at end of file
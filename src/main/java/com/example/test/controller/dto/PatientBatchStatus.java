@@ -0,0 +1,6 @@
+package com.example.test.controller.dto;
+
+public enum PatientBatchStatus {
+    CREATED,
+    NOT_UNIQUE_NAME
+}
\ No newline at end of file
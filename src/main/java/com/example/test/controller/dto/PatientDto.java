@@ -1,6 +1,7 @@
 package com.example.test.controller.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -11,12 +12,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.util.UUID;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class PatientDto {
+    private UUID id;
     private String name;
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
@@ -25,4 +28,10 @@ public class PatientDto {
     private double lastTemperature;
     private int lastPulse;
     private boolean isDischarged;
+
+    /**
+     * Sent to clients as ETag header instead of the body.
+     */
+    @JsonIgnore
+    private long version;
 }
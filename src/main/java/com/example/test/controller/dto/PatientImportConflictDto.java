@@ -0,0 +1,19 @@
+package com.example.test.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientImportConflictDto {
+
+    /**
+     * Number of the row in the file, header is not counted.
+     */
+    private long row;
+    private String name;
+}
\ No newline at end of file
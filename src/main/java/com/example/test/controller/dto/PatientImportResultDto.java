@@ -0,0 +1,25 @@
+package com.example.test.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientImportResultDto {
+    private long rows;
+    private long imported;
+    private long conflicts;
+
+    /**
+     * First rows which were not imported because their name is taken or repeated in the file.
+     */
+    private List<PatientImportConflictDto> conflictSample;
+
+    private double rowsPerSecond;
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.test.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientPageDto {
+    private List<PatientDto> patients;
+
+    /**
+     * Name of the last patient on the page, null when there are no more pages.
+     */
+    private String nextCursor;
+}
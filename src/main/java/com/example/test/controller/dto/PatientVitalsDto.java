@@ -0,0 +1,22 @@
+package com.example.test.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientVitalsDto {
+    private double temperature;
+    private int pulse;
+
+    /**
+     * Time of the measurement, time of receiving is used when it is not set.
+     */
+    private Instant measuredAt;
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.example.test.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WardStatisticsDto {
+    private long activePatients;
+
+    /**
+     * Average of measured temperatures, null when no patient is measured.
+     */
+    private Double averageTemperature;
+
+    private Double maxTemperature;
+
+    /**
+     * Number of measured patients by pulse range.
+     */
+    private Map<String, Long> pulseDistribution;
+
+    /**
+     * Number of patients by age range in years, ages are calculated on the date of statistics.
+     */
+    private Map<String, Long> ageBrackets;
+
+    private LocalDate date;
+
+    /**
+     * Time when statistics were last rebuilt from database.
+     */
+    private Instant reconciledAt;
+}
\ No newline at end of file
@@ -10,9 +10,13 @@ import org.mapstruct.MappingTarget;
 public interface PatientMapper {
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Patient toPatient(PatientDto patientDto);
 
+    @Mapping(target = "isDischarged", source = "discharged")
     PatientDto toPatientDto(Patient patient);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updatePatient(PatientDto patientDto, @MappingTarget Patient patient);
 }
\ No newline at end of file
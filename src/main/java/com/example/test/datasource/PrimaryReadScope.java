@@ -0,0 +1,35 @@
+package com.example.test.datasource;
+
+/**
+ * Sends read-only transactions of the current thread to the primary while the scope is open,
+ * so that they see changes which replicas may not have replayed yet. Scopes can be nested.
+ */
+public final class PrimaryReadScope implements AutoCloseable {
+
+    private static final ThreadLocal<PrimaryReadScope> CURRENT = new ThreadLocal<>();
+
+    private final PrimaryReadScope parent;
+
+    private PrimaryReadScope(PrimaryReadScope parent) {
+        this.parent = parent;
+    }
+
+    public static PrimaryReadScope open() {
+        PrimaryReadScope scope = new PrimaryReadScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static boolean isOpen() {
+        return CURRENT.get() != null;
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+}
\ No newline at end of file
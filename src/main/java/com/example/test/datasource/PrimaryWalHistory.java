@@ -0,0 +1,48 @@
+package com.example.test.datasource;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * WAL positions of the primary sampled by the health checks. Replica lags no more than max lag
+ * when it has replayed the position the primary had max lag ago. Until the history is that long,
+ * the oldest sample is required instead, so replicas join rotation only once they are proven to keep up.
+ */
+class PrimaryWalHistory {
+
+    private final long maxLagNanos;
+    private final Deque<long[]> samples = new ArrayDeque<>();
+
+    PrimaryWalHistory(long maxLagNanos) {
+        this.maxLagNanos = maxLagNanos;
+    }
+
+    synchronized void record(long nanos, long lsn) {
+        samples.addLast(new long[] {nanos, lsn});
+        // The newest sample older than max lag is kept, the ones before it are never required again
+        while (samples.size() > 1 && nanos - secondOldest()[0] >= maxLagNanos) {
+            samples.removeFirst();
+        }
+    }
+
+    /**
+     * @return position replica must have replayed to be in rotation, or -1 when the primary was never sampled
+     */
+    synchronized long requiredLsn() {
+        return samples.isEmpty() ? -1 : samples.peekFirst()[1];
+    }
+
+    private long[] secondOldest() {
+        var iterator = samples.iterator();
+        iterator.next();
+        return iterator.next();
+    }
+
+    /**
+     * Parses PostgreSQL pg_lsn text, e.g. 16/B374D848.
+     */
+    static long parseLsn(String lsn) {
+        int separator = lsn.indexOf('/');
+        return Long.parseLong(lsn.substring(0, separator), 16) << 32 | Long.parseLong(lsn.substring(separator + 1), 16);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.example.test.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps reads of a client on the primary during a write request and for a while after it,
+ * so that the client sees its own changes however far replicas lag behind.
+ * Client is identified by {@link #CLIENT_ID_HEADER} or by remote address when the header is missing.
+ * Reads on other threads, e.g. of streamed responses, are not covered.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+    public static final int MAX_TRACKED_CLIENTS = 10_000;
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = clientId(request);
+        boolean isWrite = !READ_METHODS.contains(request.getMethod());
+        if (!isWrite && !wroteRecently(client)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try (PrimaryReadScope scope = PrimaryReadScope.open()) {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (isWrite) {
+                recordWrite(client);
+            }
+        }
+    }
+
+    private boolean wroteRecently(String client) {
+        Long lastWrite = lastWrites.get(client);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (isExpired(lastWrite, System.nanoTime())) {
+            lastWrites.remove(client, lastWrite);
+            return false;
+        }
+        return true;
+    }
+
+    private void recordWrite(String client) {
+        long now = System.nanoTime();
+        if (lastWrites.size() >= MAX_TRACKED_CLIENTS) {
+            lastWrites.values().removeIf(lastWrite -> isExpired(lastWrite, now));
+        }
+        lastWrites.put(client, now);
+    }
+
+    private boolean isExpired(long lastWrite, long now) {
+        return now - lastWrite >= windowNanos;
+    }
+
+    private static String clientId(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+}
\ No newline at end of file
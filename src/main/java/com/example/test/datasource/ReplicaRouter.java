@@ -0,0 +1,236 @@
+package com.example.test.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections of read-only transactions. They are balanced round-robin over the healthy replicas
+ * and fall back to the primary when no replica is healthy or a {@link PrimaryReadScope} is open.
+ * Replica is healthy when it accepts connections, streams WAL from the primary and has replayed the position
+ * the primary had max lag ago, give or take one health check interval. It is checked periodically
+ * and taken out of rotation at once when it refuses a connection.
+ */
+@Slf4j
+public class ReplicaRouter implements SmartLifecycle, DisposableBean {
+
+    public static final String READS_METRIC = "patient.datasource.reads";
+    public static final String PRIMARY = "primary";
+
+    static final String PRIMARY_POSITION_QUERY = "SELECT pg_current_wal_lsn()::text";
+
+    /**
+     * Receiver shows whether a standby still streams WAL from the primary. Its details are hidden
+     * from roles without pg_read_all_stats, but the row of a running receiver is visible to everyone.
+     */
+    static final String REPLICA_POSITION_QUERY = """
+            SELECT pg_is_in_recovery(), pg_last_wal_replay_lsn()::text,
+                   EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE pid IS NOT NULL)""";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final Duration healthCheckInterval;
+    private final Counter primaryReads;
+    private final PrimaryWalHistory primaryWalHistory;
+    private final AtomicInteger next = new AtomicInteger();
+    private final DataSource readOnlyDataSource = new ReadOnlyDataSource();
+
+    private volatile ScheduledExecutorService scheduler;
+
+    public ReplicaRouter(HikariDataSource primary, List<HikariDataSource> replicas, Duration maxLag,
+                         Duration healthCheckInterval, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream()
+                .map(dataSource -> new Replica(dataSource, meterRegistry))
+                .toList();
+        this.maxLag = maxLag;
+        this.healthCheckInterval = healthCheckInterval;
+        this.primaryReads = readsCounter(PRIMARY, meterRegistry);
+        this.primaryWalHistory = new PrimaryWalHistory(maxLag.toNanos());
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Data source for connections which are read-only when they are actually fetched.
+     */
+    public DataSource getReadOnlyDataSource() {
+        return readOnlyDataSource;
+    }
+
+    /**
+     * Samples WAL position of the primary, then checks every replica against it and puts it in or out of rotation.
+     */
+    public void checkReplicas() {
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PRIMARY_POSITION_QUERY)) {
+            resultSet.next();
+            primaryWalHistory.record(System.nanoTime(), PrimaryWalHistory.parseLsn(resultSet.getString(1)));
+        } catch (SQLException | RuntimeException exception) {
+            log.warn("Could not read WAL position of the primary: {}", exception.getMessage());
+        }
+        replicas.forEach(Replica::check);
+    }
+
+    public List<String> getHealthyReplicas() {
+        return replicas.stream()
+                .filter(replica -> replica.healthy)
+                .map(Replica::name)
+                .toList();
+    }
+
+    Connection getReadOnlyConnection() throws SQLException {
+        if (!PrimaryReadScope.isOpen()) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (replica.healthy) {
+                    try {
+                        Connection connection = replica.dataSource.getConnection();
+                        replica.reads.increment();
+                        return connection;
+                    } catch (SQLException | RuntimeException exception) {
+                        replica.markHealthy(false, exception.getMessage());
+                    }
+                }
+            }
+        }
+
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService runningScheduler = scheduler;
+        scheduler = null;
+        runningScheduler.shutdownNow();
+        try {
+            runningScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private static Counter readsCounter(String target, MeterRegistry meterRegistry) {
+        return Counter.builder(READS_METRIC)
+                .description("Connections fetched for read-only transactions")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private class Replica {
+
+        private final HikariDataSource dataSource;
+        private final Counter reads;
+        private volatile boolean healthy;
+
+        Replica(HikariDataSource dataSource, MeterRegistry meterRegistry) {
+            this.dataSource = dataSource;
+            this.reads = readsCounter(name(), meterRegistry);
+            Gauge.builder("patient.datasource.replica.healthy", this, replica -> replica.healthy ? 1 : 0)
+                    .tag("target", name())
+                    .register(meterRegistry);
+        }
+
+        String name() {
+            return dataSource.getPoolName();
+        }
+
+        /**
+         * Standby is in rotation while it streams WAL and has replayed what the primary had written max lag ago.
+         * Database which is not in recovery is a standalone copy, it is checked for connectivity only.
+         */
+        void check() {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout((int) Math.max(1, healthCheckInterval.toSeconds()));
+                try (ResultSet resultSet = statement.executeQuery(REPLICA_POSITION_QUERY)) {
+                    resultSet.next();
+                    boolean isStandby = resultSet.getBoolean(1);
+                    long requiredLsn = primaryWalHistory.requiredLsn();
+                    if (!isStandby) {
+                        markHealthy(true, null);
+                    } else if (!resultSet.getBoolean(3)) {
+                        markHealthy(false, "WAL receiver is not running");
+                    } else if (requiredLsn < 0) {
+                        markHealthy(false, "WAL position of the primary is unknown");
+                    } else if (PrimaryWalHistory.parseLsn(resultSet.getString(2)) < requiredLsn) {
+                        markHealthy(false, "replication lags more than " + maxLag);
+                    } else {
+                        markHealthy(true, null);
+                    }
+                }
+            } catch (SQLException | RuntimeException exception) {
+                markHealthy(false, exception.getMessage());
+            }
+        }
+
+        void markHealthy(boolean isHealthy, String reason) {
+            if (healthy != isHealthy) {
+                healthy = isHealthy;
+                if (isHealthy) {
+                    log.info("Replica {} is in rotation", name());
+                } else {
+                    log.warn("Replica {} is out of rotation: {}", name(), reason);
+                }
+            }
+        }
+    }
+
+    private class ReadOnlyDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return getReadOnlyConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            throw new UnsupportedOperationException("Replica credentials are set in patient.replicas");
+        }
+    }
+}
\ No newline at end of file
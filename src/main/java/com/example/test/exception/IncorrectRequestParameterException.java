@@ -0,0 +1,14 @@
+package com.example.test.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class IncorrectRequestParameterException extends PatientException{
+    public IncorrectRequestParameterException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+}
\ No newline at end of file
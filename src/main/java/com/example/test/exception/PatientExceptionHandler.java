@@ -1,12 +1,21 @@
 package com.example.test.exception;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.time.Duration;
+
+@Slf4j
 @ControllerAdvice
 public class PatientExceptionHandler {
 
+    public static final String DATABASE_IS_BUSY = "Database is busy, retry later!";
+    public static final Duration DATABASE_RETRY_AFTER = Duration.ofSeconds(1);
+
     @ExceptionHandler(PatientException.class)
     protected ResponseEntity<ResponseBody> handlePatientExceptions(PatientException exception) {
         var exceptionBody = ResponseBody.builder()
@@ -16,4 +25,28 @@ public class PatientExceptionHandler {
 
         return new ResponseEntity<>(exceptionBody, exception.getHttpStatus());
     }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    protected ResponseEntity<ResponseBody> handleServiceOverloadedException(ServiceOverloadedException exception) {
+        var exceptionBody = ResponseBody.builder()
+                .status(exception.getHttpStatus().value())
+                .message(exception.getMessage())
+                .build();
+        // Retry-After is whole seconds, rounded up so that clients never come back too early
+        long retryAfterSeconds = Math.max(1, (exception.getRetryAfter().toMillis() + 999) / 1000);
+
+        return ResponseEntity.status(exception.getHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(exceptionBody);
+    }
+
+    /**
+     * Transaction could not get a connection, usually because the pool stayed exhausted for the whole connection timeout.
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    protected ResponseEntity<ResponseBody> handleCannotCreateTransactionException(
+            CannotCreateTransactionException exception) {
+        log.warn("Could not begin transaction: {}", exception.getMessage());
+        return handleServiceOverloadedException(new ServiceOverloadedException(DATABASE_IS_BUSY, DATABASE_RETRY_AFTER));
+    }
 }
\ No newline at end of file
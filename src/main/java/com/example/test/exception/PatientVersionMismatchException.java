@@ -0,0 +1,14 @@
+package com.example.test.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PatientVersionMismatchException extends PatientException{
+    public PatientVersionMismatchException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return HttpStatus.PRECONDITION_FAILED;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.test.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+public class ServiceOverloadedException extends PatientException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
\ No newline at end of file
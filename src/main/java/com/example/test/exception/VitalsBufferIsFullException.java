@@ -0,0 +1,14 @@
+package com.example.test.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class VitalsBufferIsFullException extends PatientException{
+    public VitalsBufferIsFullException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getHttpStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
\ No newline at end of file
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -15,9 +17,12 @@ import java.util.UUID;
 @AllArgsConstructor
 @Table(name = "patient")
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "patient")
 public class Patient {
+    /**
+     * Assigned by PatientIdGenerator before insert.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @Column(name = "name")
@@ -34,4 +39,8 @@ public class Patient {
 
     @Column(name = "is_discharged")
     private boolean isDischarged;
+
+    @Version
+    @Column(name = "version")
+    private long version;
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.example.test.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "patient_vitals")
+@Builder
+public class PatientVitals {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "patient_id")
+    private UUID patientId;
+
+    @Column(name = "temperature")
+    private double temperature;
+
+    @Column(name = "pulse")
+    private int pulse;
+
+    @Column(name = "measured_at")
+    private Instant measuredAt;
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.example.test.model.id;
+
+import java.util.UUID;
+
+/**
+ * Generates ids of new patients, implementation is chosen by patient.id.generator property.
+ */
+public interface PatientIdGenerator {
+
+    UUID generate();
+
+    /**
+     * SQL expression which generates the same kind of ids in the database, for statements inserting many rows.
+     */
+    String sqlExpression();
+}
\ No newline at end of file
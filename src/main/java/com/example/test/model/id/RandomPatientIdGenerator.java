@@ -0,0 +1,24 @@
+package com.example.test.model.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Random version 4 ids, new rows are spread over the whole primary key index.
+ */
+@Component
+@ConditionalOnProperty(prefix = "patient.id", name = "generator", havingValue = "random")
+public class RandomPatientIdGenerator implements PatientIdGenerator {
+
+    @Override
+    public UUID generate() {
+        return UUID.randomUUID();
+    }
+
+    @Override
+    public String sqlExpression() {
+        return "gen_random_uuid()";
+    }
+}
\ No newline at end of file
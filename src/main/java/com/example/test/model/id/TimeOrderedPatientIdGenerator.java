@@ -0,0 +1,45 @@
+package com.example.test.model.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version 7 ids: 48 bits of Unix time in milliseconds, a 12 bit counter and 62 random bits.
+ * New rows are appended to the right edge of the primary key index instead of splitting random pages.
+ * Ids generated by one instance are strictly increasing, when the counter overflows
+ * the timestamp is moved a millisecond forward.
+ */
+@Component
+@ConditionalOnProperty(prefix = "patient.id", name = "generator", havingValue = "time-ordered", matchIfMissing = true)
+public class TimeOrderedPatientIdGenerator implements PatientIdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    @Override
+    public UUID generate() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long timestampAndCounter = lastTimestampAndCounter.updateAndGet(last -> Math.max(now, last + 1));
+
+        long mostSignificantBits = (timestampAndCounter >>> COUNTER_BITS) << 16
+                | VERSION
+                | (timestampAndCounter & COUNTER_MASK);
+        long leastSignificantBits = random.nextLong() & RANDOM_MASK | VARIANT;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    @Override
+    public String sqlExpression() {
+        return "uuid_generate_v7()";
+    }
+}
\ No newline at end of file
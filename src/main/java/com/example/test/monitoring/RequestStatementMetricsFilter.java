@@ -0,0 +1,57 @@
+package com.example.test.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records number of JDBC statements and time spent in them for every request, tagged like http.server.requests.
+ * Statements executed by other threads, e.g. for streamed responses, are not counted.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class RequestStatementMetricsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_METRIC = "patient.request.statements";
+    public static final String JDBC_TIME_METRIC = "patient.request.jdbc";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (StatementScope scope = StatementScope.open()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+
+                DistributionSummary.builder(STATEMENTS_METRIC)
+                        .baseUnit("statements")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .record(scope.statements());
+                Timer.builder(JDBC_TIME_METRIC)
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .record(scope.jdbcTime());
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.example.test.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wraps data sources, so that every statement executed through JPA, JdbcTemplate or Liquibase
+ * is counted by open {@link StatementScope}s.
+ */
+@Component
+public class StatementCountingDataSourcePostProcessor implements BeanPostProcessor, QueryExecutionListener {
+
+    private static final String START_NANOS = "startNanos";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(this)
+                    .build();
+        }
+        return bean;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+        executionInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+        StatementScope.record(System.nanoTime() - executionInfo.getCustomValue(START_NANOS, Long.class));
+    }
+}
\ No newline at end of file
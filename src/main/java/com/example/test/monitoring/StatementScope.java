@@ -0,0 +1,51 @@
+package com.example.test.monitoring;
+
+import java.time.Duration;
+
+/**
+ * Counts JDBC statements executed by the current thread inside the scope and time spent in them.
+ * Scopes can be nested, statement is counted by every open scope of the thread.
+ * Batch is counted as one statement, because it is sent to the database at once.
+ */
+public final class StatementScope implements AutoCloseable {
+
+    private static final ThreadLocal<StatementScope> CURRENT = new ThreadLocal<>();
+
+    private final StatementScope parent;
+    private int statements;
+    private long jdbcNanos;
+
+    private StatementScope(StatementScope parent) {
+        this.parent = parent;
+    }
+
+    public static StatementScope open() {
+        StatementScope scope = new StatementScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void record(long nanos) {
+        for (StatementScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.jdbcNanos += nanos;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public Duration jdbcTime() {
+        return Duration.ofNanos(jdbcNanos);
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+}
\ No newline at end of file
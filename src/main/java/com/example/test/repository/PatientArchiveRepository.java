@@ -0,0 +1,80 @@
+package com.example.test.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Moves discharged patients from the patient table to the patient_archive table, which is partitioned by month of discharge.
+ * Patients discharged before discharged_at was added are archived as discharged at the start of the archiving run.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PatientArchiveRepository {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    private static final String SELECT_ARCHIVE_MONTHS = """
+            SELECT DISTINCT date_trunc('month', COALESCE(discharged_at, ?) AT TIME ZONE 'UTC')::date
+            FROM patient
+            WHERE is_discharged AND COALESCE(discharged_at, '-infinity') < ?
+            """;
+
+    private static final String CREATE_PARTITION = """
+            CREATE TABLE IF NOT EXISTS patient_archive_%s PARTITION OF patient_archive
+            FOR VALUES FROM ('%s 00:00:00+00') TO ('%s 00:00:00+00')
+            """;
+
+    /**
+     * Rows locked by a concurrent update are skipped and archived by the next batch.
+     */
+    private static final String MOVE_TO_ARCHIVE = """
+            WITH archived AS (
+                DELETE FROM patient
+                WHERE id IN (
+                    SELECT id
+                    FROM patient
+                    WHERE is_discharged AND COALESCE(discharged_at, '-infinity') < ?
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id, name, birth_date, last_temperature, last_pulse, version, discharged_at
+            )
+            INSERT INTO patient_archive (id, name, birth_date, last_temperature, last_pulse, version, discharged_at)
+            SELECT id, name, birth_date, last_temperature, last_pulse, version, COALESCE(discharged_at, ?)
+            FROM archived
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates monthly partitions for every patient discharged before the date, existing ones are kept.
+     * Scans all discharged patients, so it is meant to be called once per archiving run.
+     *
+     * @param archivedAt discharge time of patients without one
+     */
+    public void createPartitions(Instant dischargedBefore, Instant archivedAt) {
+        List<LocalDate> months = jdbcTemplate.queryForList(SELECT_ARCHIVE_MONTHS, LocalDate.class,
+                Timestamp.from(archivedAt), Timestamp.from(dischargedBefore));
+        for (LocalDate month : months) {
+            jdbcTemplate.execute(CREATE_PARTITION.formatted(PARTITION_SUFFIX.format(month), month, month.plusMonths(1)));
+        }
+    }
+
+    /**
+     * Moves patients discharged before the date to the archive, partitions must already exist.
+     *
+     * @param archivedAt discharge time of patients without one
+     * @param limit max number of moved patients
+     * @return number of moved patients
+     */
+    public int moveToArchive(Instant dischargedBefore, Instant archivedAt, int limit) {
+        return jdbcTemplate.update(MOVE_TO_ARCHIVE, Timestamp.from(dischargedBefore), limit, Timestamp.from(archivedAt));
+    }
+}
\ No newline at end of file
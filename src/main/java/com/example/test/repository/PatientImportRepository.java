@@ -0,0 +1,109 @@
+package com.example.test.repository;
+
+import com.example.test.controller.dto.PatientImportConflictDto;
+import com.example.test.model.id.PatientIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Loads patients from CSV through PostgreSQL COPY into a temporary staging table and merges them into patient table.
+ * All methods must be called in one transaction, the staging table is dropped on commit.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PatientImportRepository {
+
+    public static final String CSV_COLUMNS = "name,birth_date,last_temperature,last_pulse,is_discharged";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMPORARY TABLE patient_import
+            (
+                line                bigserial,
+                name                varchar(30) NOT NULL,
+                birth_date          date        NOT NULL,
+                last_temperature    numeric(19, 1),
+                last_pulse          integer,
+                is_discharged       boolean
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_INTO_STAGING_TABLE =
+            "COPY patient_import (" + CSV_COLUMNS + ") FROM STDIN WITH (FORMAT csv, HEADER true)";
+
+    private static final String FIND_CONFLICTS = """
+            SELECT line, name
+            FROM (SELECT i.line, i.name,
+                         row_number() OVER (PARTITION BY i.name ORDER BY i.line) AS occurrence,
+                         EXISTS (SELECT 1 FROM patient p WHERE p.name = i.name) AS taken
+                  FROM patient_import i) AS c
+            WHERE taken OR occurrence > 1
+            ORDER BY line
+            LIMIT ?
+            """;
+
+    private static final String MERGE_STAGING_TABLE = """
+            INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged)
+            SELECT %s, name, birth_date, COALESCE(last_temperature, 0), COALESCE(last_pulse, 0),
+                   COALESCE(is_discharged, false)
+            FROM patient_import
+            ORDER BY line
+            ON CONFLICT (name) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PatientIdGenerator patientIdGenerator;
+
+    public void createStagingTable() {
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+    }
+
+    /**
+     * Streams CSV with header to the staging table, the file is parsed by the database.
+     * Rows without name or birth date are rejected by COPY, so the error names the line of the file.
+     *
+     * @return number of copied rows
+     */
+    public long copyIntoStagingTable(InputStream csv) {
+        long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_INTO_STAGING_TABLE, csv, COPY_BUFFER_SIZE);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+        // Temporary tables are not analyzed automatically, without statistics merge may get a nested loop plan
+        jdbcTemplate.execute("ANALYZE patient_import");
+        return rows;
+    }
+
+    /**
+     * Finds staged rows which will not be merged, because their name is already taken
+     * or has appeared earlier in the file.
+     */
+    public List<PatientImportConflictDto> findConflicts(int limit) {
+        return jdbcTemplate.query(FIND_CONFLICTS, (resultSet, rowNumber) -> PatientImportConflictDto.builder()
+                .row(resultSet.getLong("line"))
+                .name(resultSet.getString("name"))
+                .build(), limit);
+    }
+
+    /**
+     * Inserts all staged rows with unique names in one statement, ids are generated by the database.
+     *
+     * @return number of inserted patients
+     */
+    public long mergeStagingTable() {
+        return jdbcTemplate.update(MERGE_STAGING_TABLE.formatted(patientIdGenerator.sqlExpression()));
+    }
+}
\ No newline at end of file
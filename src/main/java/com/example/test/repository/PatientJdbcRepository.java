@@ -0,0 +1,183 @@
+package com.example.test.repository;
+
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.model.entity.Patient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Patient statements which need plain JDBC features, such as batching, instead of JPA.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PatientJdbcRepository {
+
+    public static final int BATCH_SIZE = 1000;
+    public static final int EXPORT_FETCH_SIZE = 1000;
+
+    /**
+     * Min word similarity of a typo to a word of the name, default 0.6 misses one typo in a seven letter word.
+     */
+    public static final String SEARCH_WORD_SIMILARITY_THRESHOLD = "0.5";
+
+    private static final String INSERT_IF_NAME_IS_UNIQUE = """
+            INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (name) DO NOTHING
+            """;
+
+    /**
+     * Hot and archived patients, filters on the union are pushed down to both tables and their indexes.
+     */
+    private static final String PATIENT_WITH_ARCHIVE = """
+            (SELECT id, name, birth_date, last_temperature, last_pulse, is_discharged, version
+             FROM patient
+             UNION ALL
+             SELECT id, name, birth_date, last_temperature, last_pulse, true, version
+             FROM patient_archive) AS patient""";
+
+    private static final String SELECT_PATIENT_DTO = """
+            SELECT id, name, birth_date, last_temperature, last_pulse, is_discharged, version
+            FROM %s
+            WHERE true
+            """.formatted(PATIENT_WITH_ARCHIVE);
+
+    /**
+     * Prefix matches use the text_pattern_ops index, typos use the trigram index,
+     * PostgreSQL combines both with a bitmap OR.
+     */
+    private static final String SEARCH_BY_NAME = """
+            SELECT id, name, birth_date, last_temperature, last_pulse, is_discharged, version
+            FROM %s
+            WHERE (lower(name) LIKE ? ESCAPE '\\' OR ? <%% lower(name))
+            """;
+
+    private static final String SEARCH_BY_NAME_ORDER = """
+            ORDER BY lower(name) LIKE ? ESCAPE '\\' DESC, word_similarity(?, lower(name)) DESC, name
+            LIMIT ?
+            """;
+
+    /**
+     * Ids are bound as one array parameter, so the statement text is the same for any batch size.
+     */
+    private static final String DISCHARGE_ALL_IF_NOT_DISCHARGED = """
+            UPDATE patient
+            SET is_discharged = true, discharged_at = now(), version = version + 1
+            WHERE id = ANY (?) AND is_discharged = false
+            RETURNING id, name, birth_date, last_temperature, last_pulse, is_discharged, version
+            """;
+
+    private static final RowMapper<PatientDto> PATIENT_DTO_ROW_MAPPER = (resultSet, rowNumber) -> PatientDto.builder()
+            .id(resultSet.getObject("id", UUID.class))
+            .name(resultSet.getString("name"))
+            .birthDate(resultSet.getObject("birth_date", LocalDate.class))
+            .lastTemperature(resultSet.getDouble("last_temperature"))
+            .lastPulse(resultSet.getInt("last_pulse"))
+            .isDischarged(resultSet.getBoolean("is_discharged"))
+            .version(resultSet.getLong("version"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts patients in JDBC batches, skipping the ones whose name is already taken.
+     *
+     * @param patients patients with generated ids
+     * @return for every patient true if it has been inserted
+     */
+    public boolean[] insertAllIfNameIsUnique(List<Patient> patients) {
+        int[][] batchCounts = jdbcTemplate.batchUpdate(INSERT_IF_NAME_IS_UNIQUE, patients, BATCH_SIZE,
+                (statement, patient) -> {
+                    statement.setObject(1, patient.getId());
+                    statement.setString(2, patient.getName());
+                    statement.setObject(3, patient.getBirthDate());
+                    statement.setDouble(4, patient.getLastTemperature());
+                    statement.setInt(5, patient.getLastPulse());
+                    statement.setBoolean(6, patient.isDischarged());
+                });
+
+        boolean[] inserted = new boolean[patients.size()];
+        int index = 0;
+        for (int[] counts : batchCounts) {
+            for (int count : counts) {
+                inserted[index++] = count > 0;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Discharges all not discharged patients from the list in one statement,
+     * changed rows are mapped directly to DTOs, so no entities are loaded into persistence context.
+     *
+     * @return discharged patients
+     */
+    public List<PatientDto> dischargeAllIfNotDischarged(Collection<UUID> ids) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(DISCHARGE_ALL_IF_NOT_DISCHARGED);
+            statement.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+            return statement;
+        }, PATIENT_DTO_ROW_MAPPER);
+    }
+
+    /**
+     * Streams hot and archived patients from a server-side cursor, only not null filters are added to the query.
+     * Must be called and consumed inside a transaction, otherwise the driver reads all rows at once.
+     */
+    public Stream<PatientDto> streamPatients(Boolean isDischarged, LocalDate birthDateFrom, LocalDate birthDateTo) {
+        StringBuilder sql = new StringBuilder(SELECT_PATIENT_DTO);
+        List<Object> parameters = new ArrayList<>();
+        if (isDischarged != null) {
+            sql.append(" AND is_discharged = ?");
+            parameters.add(isDischarged);
+        }
+        if (birthDateFrom != null) {
+            sql.append(" AND birth_date >= ?");
+            parameters.add(birthDateFrom);
+        }
+        if (birthDateTo != null) {
+            sql.append(" AND birth_date <= ?");
+            parameters.add(birthDateTo);
+        }
+
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            statement.setFetchSize(EXPORT_FETCH_SIZE);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return statement;
+        }, PATIENT_DTO_ROW_MAPPER);
+    }
+
+    /**
+     * Finds patients whose name starts with the query or contains a word similar to it.
+     * Names starting with the query go first, the rest are ordered by similarity.
+     * Discharged patients are also searched in the archive.
+     * Must be called inside a transaction, the similarity threshold is set only for it.
+     *
+     * @param query lower case text to search
+     * @param activeOnly true to skip discharged patients
+     * @param limit max number of found patients
+     */
+    public List<PatientDto> searchByName(String query, boolean activeOnly, int limit) {
+        String prefix = query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        String sql = activeOnly
+                ? SEARCH_BY_NAME.formatted("patient") + "AND is_discharged = false\n" + SEARCH_BY_NAME_ORDER
+                : SEARCH_BY_NAME.formatted(PATIENT_WITH_ARCHIVE) + SEARCH_BY_NAME_ORDER;
+
+        jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)", String.class,
+                SEARCH_WORD_SIMILARITY_THRESHOLD);
+        return jdbcTemplate.query(sql, PATIENT_DTO_ROW_MAPPER, prefix, query, prefix, query, limit);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.example.test.repository;
+
+import com.example.test.controller.dto.PatientDto;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of the patient statements of {@link PatientRepository}, every statement is one round trip.
+ */
+@Repository
+@Profile("reactive")
+public class PatientR2dbcRepository {
+
+    private static final String PATIENT_COLUMNS = "id, name, birth_date, last_temperature, last_pulse, is_discharged, version";
+
+    private static final String INSERT_IF_NAME_IS_UNIQUE = """
+            INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged)
+            VALUES (:id, :name, :birthDate, :lastTemperature, :lastPulse, :isDischarged)
+            ON CONFLICT (name) DO NOTHING
+            RETURNING\s""" + PATIENT_COLUMNS;
+
+    private static final String UPDATE_IF_NOT_DISCHARGED = """
+            UPDATE patient
+            SET name = :name, birth_date = :birthDate, last_temperature = :lastTemperature, last_pulse = :lastPulse,
+                version = version + 1
+            WHERE id = :id AND is_discharged = false
+              AND version = COALESCE(CAST(:expectedVersion AS bigint), version)
+            RETURNING\s""" + PATIENT_COLUMNS;
+
+    private static final String DISCHARGE_IF_NOT_DISCHARGED = """
+            UPDATE patient
+            SET is_discharged = true, discharged_at = now(), version = version + 1
+            WHERE id = :id AND is_discharged = false
+              AND version = COALESCE(CAST(:expectedVersion AS bigint), version)
+            RETURNING\s""" + PATIENT_COLUMNS;
+
+    private static final String SELECT_PATIENT = "SELECT " + PATIENT_COLUMNS + " FROM patient\n";
+
+    private final DatabaseClient databaseClient;
+
+    public PatientR2dbcRepository(ConnectionFactory connectionFactory) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * @return inserted patient or empty if a patient with the same name already exists
+     */
+    public Mono<PatientDto> insertIfNameIsUnique(UUID id, PatientDto patient) {
+        return databaseClient.sql(INSERT_IF_NAME_IS_UNIQUE)
+                .bind("id", id)
+                .bind("name", Parameter.fromOrEmpty(patient.getName(), String.class))
+                .bind("birthDate", Parameter.fromOrEmpty(patient.getBirthDate(), LocalDate.class))
+                .bind("lastTemperature", patient.getLastTemperature())
+                .bind("lastPulse", patient.getLastPulse())
+                .bind("isDischarged", patient.isDischarged())
+                .map(PatientR2dbcRepository::toPatientDto)
+                .one();
+    }
+
+    /**
+     * @param expectedVersion version the patient must have, null to skip the check
+     * @return updated patient or empty if there is no such not discharged patient with expected version
+     */
+    public Mono<PatientDto> updateIfNotDischarged(UUID id, PatientDto patient, Long expectedVersion) {
+        return databaseClient.sql(UPDATE_IF_NOT_DISCHARGED)
+                .bind("expectedVersion", Parameter.fromOrEmpty(expectedVersion, Long.class))
+                .bind("id", id)
+                .bind("name", Parameter.fromOrEmpty(patient.getName(), String.class))
+                .bind("birthDate", Parameter.fromOrEmpty(patient.getBirthDate(), LocalDate.class))
+                .bind("lastTemperature", patient.getLastTemperature())
+                .bind("lastPulse", patient.getLastPulse())
+                .map(PatientR2dbcRepository::toPatientDto)
+                .one();
+    }
+
+    /**
+     * @param expectedVersion version the patient must have, null to skip the check
+     * @return discharged patient or empty if there is no such not discharged patient with expected version
+     */
+    public Mono<PatientDto> dischargeIfNotDischarged(UUID id, Long expectedVersion) {
+        return databaseClient.sql(DISCHARGE_IF_NOT_DISCHARGED)
+                .bind("expectedVersion", Parameter.fromOrEmpty(expectedVersion, Long.class))
+                .bind("id", id)
+                .map(PatientR2dbcRepository::toPatientDto)
+                .one();
+    }
+
+    public Mono<Boolean> existsByIdAndIsDischargedIsFalse(UUID id) {
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM patient WHERE id = :id AND is_discharged = false)")
+                .bind("id", id)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    public Mono<PatientDto> findById(UUID id) {
+        return databaseClient.sql(SELECT_PATIENT + "WHERE id = :id")
+                .bind("id", id)
+                .map(PatientR2dbcRepository::toPatientDto)
+                .one();
+    }
+
+    /**
+     * Rows are emitted as they arrive from the database, as fast as the subscriber requests them.
+     */
+    public Flux<PatientDto> findNotDischargedPatients() {
+        return databaseClient.sql(SELECT_PATIENT + "WHERE is_discharged = false ORDER BY name")
+                .map(PatientR2dbcRepository::toPatientDto)
+                .all();
+    }
+
+    public Flux<PatientDto> findNotDischargedPatients(int limit) {
+        return databaseClient.sql(SELECT_PATIENT + "WHERE is_discharged = false ORDER BY name LIMIT :limit")
+                .bind("limit", limit)
+                .map(PatientR2dbcRepository::toPatientDto)
+                .all();
+    }
+
+    public Flux<PatientDto> findNotDischargedPatientsWithNameAfter(String name, int limit) {
+        return databaseClient.sql(SELECT_PATIENT + "WHERE is_discharged = false AND name > :name ORDER BY name LIMIT :limit")
+                .bind("name", name)
+                .bind("limit", limit)
+                .map(PatientR2dbcRepository::toPatientDto)
+                .all();
+    }
+
+    private static PatientDto toPatientDto(Readable row) {
+        BigDecimal lastTemperature = row.get("last_temperature", BigDecimal.class);
+        Integer lastPulse = row.get("last_pulse", Integer.class);
+
+        return PatientDto.builder()
+                .id(row.get("id", UUID.class))
+                .name(row.get("name", String.class))
+                .birthDate(row.get("birth_date", LocalDate.class))
+                .lastTemperature(lastTemperature != null ? lastTemperature.doubleValue() : 0)
+                .lastPulse(lastPulse != null ? lastPulse : 0)
+                .isDischarged(Boolean.TRUE.equals(row.get("is_discharged", Boolean.class)))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
\ No newline at end of file
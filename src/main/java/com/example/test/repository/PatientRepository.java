@@ -1,15 +1,109 @@
 package com.example.test.repository;
 
+import com.example.test.controller.dto.PatientDto;
 import com.example.test.model.entity.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Statements returning changed patients bypass the second-level cache, otherwise it could keep a state
+ * of a rolled back transaction, changed patients are evicted from it after commit by PatientEntityCache.
+ */
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, UUID> {
     boolean existsByName(String name);
     boolean existsByIdAndIsDischargedIsFalse(UUID id);
-    List<Patient> findByIsDischargedIsFalseOrderByNameAsc();
+
+    /**
+     * Selects not discharged patients directly into DTOs, so no entities are loaded into persistence context.
+     */
+    String SELECT_NOT_DISCHARGED_PATIENT_DTO = """
+            SELECT new com.example.test.controller.dto.PatientDto(
+                p.id, p.name, p.birthDate, p.lastTemperature, p.lastPulse, p.isDischarged, p.version)
+            FROM Patient p
+            WHERE p.isDischarged = false
+            """;
+
+    @Query(SELECT_NOT_DISCHARGED_PATIENT_DTO + "ORDER BY p.name")
+    List<PatientDto> findNotDischargedPatients();
+
+    @Query(SELECT_NOT_DISCHARGED_PATIENT_DTO + "ORDER BY p.name")
+    List<PatientDto> findNotDischargedPatients(Limit limit);
+
+    /**
+     * Ids of not discharged patients in the database order of names, read from the active name index only.
+     */
+    @Query("SELECT p.id FROM Patient p WHERE p.isDischarged = false ORDER BY p.name")
+    List<UUID> findNotDischargedPatientIds();
+
+    @Query(SELECT_NOT_DISCHARGED_PATIENT_DTO + "AND p.name > :name ORDER BY p.name")
+    List<PatientDto> findNotDischargedPatientsWithNameAfter(@Param("name") String name, Limit limit);
+
+    @Query("SELECT p.name FROM Patient p WHERE p.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    /**
+     * Inserts the patient in one statement, relying on the unique name constraint.
+     *
+     * @return inserted patient or empty if a patient with the same name already exists
+     */
+    @Query(value = """
+            INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged)
+            VALUES (:#{#patient.id}, :#{#patient.name}, :#{#patient.birthDate},
+                    :#{#patient.lastTemperature}, :#{#patient.lastPulse}, :#{#patient.discharged})
+            ON CONFLICT (name) DO NOTHING
+            RETURNING *
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS"))
+    @Transactional
+    Optional<Patient> insertIfNameIsUnique(@Param("patient") Patient patient);
+
+    /**
+     * Overwrites information about not discharged patient in one statement.
+     *
+     * @param expectedVersion version the patient must have, null to skip the check
+     * @return updated patient or empty if there is no such not discharged patient with expected version
+     */
+    @Query(value = """
+            UPDATE patient
+            SET name = :#{#patient.name}, birth_date = :#{#patient.birthDate},
+                last_temperature = :#{#patient.lastTemperature}, last_pulse = :#{#patient.lastPulse},
+                version = version + 1
+            WHERE id = :id AND is_discharged = false
+              AND version = COALESCE(CAST(:expectedVersion AS bigint), version)
+            RETURNING *
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS"))
+    @Transactional
+    Optional<Patient> updateIfNotDischarged(@Param("id") UUID id, @Param("patient") Patient patient,
+                                            @Param("expectedVersion") Long expectedVersion);
+
+    /**
+     * Discharges not discharged patient in one statement.
+     *
+     * @param expectedVersion version the patient must have, null to skip the check
+     * @return discharged patient or empty if there is no such not discharged patient with expected version
+     */
+    @Query(value = """
+            UPDATE patient
+            SET is_discharged = true, discharged_at = now(), version = version + 1
+            WHERE id = :id AND is_discharged = false
+              AND version = COALESCE(CAST(:expectedVersion AS bigint), version)
+            RETURNING *
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS"))
+    @Transactional
+    Optional<Patient> dischargeIfNotDischarged(@Param("id") UUID id, @Param("expectedVersion") Long expectedVersion);
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.example.test.repository;
+
+import com.example.test.model.entity.Patient;
+import com.example.test.model.entity.PatientVitals;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes vitals with set-based statements over arrays, so a flush costs the same number of round trips
+ * regardless of the number of readings.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PatientVitalsRepository {
+
+    private static final String INSERT_ALL = """
+            INSERT INTO patient_vitals (patient_id, temperature, pulse, measured_at)
+            SELECT v.patient_id, v.temperature, v.pulse, v.measured_at
+            FROM unnest(?::uuid[], ?::float8[], ?::int4[], ?::timestamptz[]) AS v(patient_id, temperature, pulse, measured_at)
+            JOIN patient p ON p.id = v.patient_id AND p.is_discharged = false
+            """;
+
+    private static final String UPDATE_LAST_VITALS = """
+            UPDATE patient p
+            SET last_temperature = v.temperature, last_pulse = v.pulse, version = p.version + 1
+            FROM unnest(?::uuid[], ?::float8[], ?::int4[]) AS v(id, temperature, pulse)
+            WHERE p.id = v.id AND p.is_discharged = false
+            RETURNING p.*
+            """;
+
+    private static final RowMapper<Patient> PATIENT_ROW_MAPPER = (resultSet, rowNumber) -> Patient.builder()
+            .id(resultSet.getObject("id", UUID.class))
+            .name(resultSet.getString("name"))
+            .birthDate(resultSet.getObject("birth_date", LocalDate.class))
+            .lastTemperature(resultSet.getDouble("last_temperature"))
+            .lastPulse(resultSet.getInt("last_pulse"))
+            .isDischarged(resultSet.getBoolean("is_discharged"))
+            .version(resultSet.getLong("version"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Appends readings of not discharged patients, readings of other patients are skipped.
+     *
+     * @return number of appended readings
+     */
+    public int insertAll(Collection<PatientVitals> vitals) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_ALL);
+            setVitalsArrays(connection, statement, vitals);
+            statement.setArray(4, connection.createArrayOf("timestamptz",
+                    vitals.stream().map(reading -> reading.getMeasuredAt().toString()).toArray(String[]::new)));
+            return statement;
+        });
+    }
+
+    /**
+     * Sets last temperature and pulse of not discharged patients, one reading per patient is expected.
+     * Version is incremented, so updates based on a state read before the flush fail on version check.
+     *
+     * @return updated patients
+     */
+    public List<Patient> updateLastVitals(Collection<PatientVitals> latestVitals) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(UPDATE_LAST_VITALS);
+            setVitalsArrays(connection, statement, latestVitals);
+            return statement;
+        }, PATIENT_ROW_MAPPER);
+    }
+
+    private void setVitalsArrays(Connection connection, PreparedStatement statement,
+                                 Collection<PatientVitals> vitals) throws SQLException {
+        statement.setArray(1, connection.createArrayOf("uuid",
+                vitals.stream().map(PatientVitals::getPatientId).toArray(UUID[]::new)));
+        statement.setArray(2, connection.createArrayOf("float8",
+                vitals.stream().map(PatientVitals::getTemperature).toArray(Double[]::new)));
+        statement.setArray(3, connection.createArrayOf("int4",
+                vitals.stream().map(PatientVitals::getPulse).toArray(Integer[]::new)));
+    }
+}
\ No newline at end of file
@@ -1,9 +1,21 @@
 package com.example.test.service;
 
+import com.example.test.controller.dto.PatientBatchDischargeDto;
+import com.example.test.controller.dto.PatientBatchResultDto;
 import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.PatientImportResultDto;
+import com.example.test.controller.dto.PatientPageDto;
+import com.example.test.controller.dto.PatientVitalsDto;
+import com.example.test.controller.dto.WardStatisticsDto;
+import com.example.test.service.cache.PatientsSnapshot;
+import com.example.test.service.feed.PatientFeedSubscriber;
+import com.example.test.service.feed.PatientFeedSubscription;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Service for working with patients
@@ -18,6 +30,15 @@ public interface PatientService {
      */
     PatientDto addNewPatient(PatientDto patientDto);
 
+    /**
+     * Method for add many new patients at once.
+     * Patients with not unique names are rejected one by one, the rest are added.
+     *
+     * @param patientDtoList new patients
+     * @return result for every new patient in the same order
+     */
+    List<PatientBatchResultDto> addNewPatients(List<PatientDto> patientDtoList);
+
     /**
      * Method for add new patient.
      *
@@ -27,6 +48,16 @@ public interface PatientService {
      */
     PatientDto changeInformationAboutPatient(UUID patientId, PatientDto patientDto);
 
+    /**
+     * Method for change information about patient which has not been changed since expected version.
+     *
+     * @param patientId patient id
+     * @param patientDto information to change
+     * @param expectedVersion version of patient known to client, null to skip the check
+     * @return changed patient
+     */
+    PatientDto changeInformationAboutPatient(UUID patientId, PatientDto patientDto, Long expectedVersion);
+
     /**
      * Method for add new patient.
      *
@@ -35,10 +66,113 @@ public interface PatientService {
      */
     PatientDto dischargePatient(UUID id);
 
+    /**
+     * Method for import patients from CSV file with header name,birth_date,last_temperature,last_pulse,is_discharged.
+     * Rows whose name is taken or repeated in the file are skipped, the rest are added in one transaction.
+     *
+     * @param csv content of the file, read only once
+     * @return numbers of read, imported and conflicting rows
+     */
+    PatientImportResultDto importPatients(InputStream csv);
+
+    /**
+     * Method for discharge patient which has not been changed since expected version.
+     *
+     * @param id id of patient for discharge
+     * @param expectedVersion version of patient known to client, null to skip the check
+     * @return discharged patient
+     */
+    PatientDto dischargePatient(UUID id, Long expectedVersion);
+
+    /**
+     * Method for discharge many patients at once.
+     *
+     * @param ids ids of patients for discharge
+     * @return discharged patients and ids of patients which could not be discharged
+     */
+    PatientBatchDischargeDto dischargePatients(List<UUID> ids);
+
+    /**
+     * Method for add new vitals reading of patient.
+     * Reading is saved asynchronously, readings of unknown or discharged patients are skipped.
+     *
+     * @param patientId patient id
+     * @param patientVitalsDto vitals reading
+     */
+    void addVitals(UUID patientId, PatientVitalsDto patientVitalsDto);
+
+    /**
+     * Method for getting patient by id, discharged included until it is archived.
+     * The patient is read through the second-level cache when it is enabled.
+     *
+     * @param patientId patient id
+     * @return found patient
+     */
+    PatientDto getPatient(UUID patientId);
+
     /**
      * Method for getting all not discharged patients
      *
      * @return list of not discharged patients
      */
     List<PatientDto> getAllNotDischargedPatients();
+
+    /**
+     * Method for getting all not discharged patients serialized to JSON.
+     * The snapshot is served from memory and changes only when the list of patients changes.
+     *
+     * @return serialized list of not discharged patients with its ETag
+     */
+    PatientsSnapshot getNotDischargedPatientsSnapshot();
+
+    /**
+     * Method for getting statistics of not discharged patients.
+     * Statistics are kept in memory and updated by every change, so reading them does not depend on census size.
+     *
+     * @return count, temperatures, pulse distribution and age brackets of not discharged patients
+     */
+    WardStatisticsDto getWardStatistics();
+
+    /**
+     * Method for search patients by name, case insensitive and tolerant to typos.
+     * Names starting with the query go first, the rest are ordered by similarity to the query.
+     *
+     * @param query part of the name to search
+     * @param activeOnly true to search only not discharged patients
+     * @param limit max number of found patients
+     * @return found patients
+     */
+    List<PatientDto> searchPatients(String query, boolean activeOnly, int limit);
+
+    /**
+     * Method for export all patients matching the filters, discharged included.
+     * Patients are read from database in portions and passed to the consumer one by one.
+     *
+     * @param isDischarged discharged flag of exported patients, null for all patients
+     * @param birthDateFrom min birth date, inclusive, null for no limit
+     * @param birthDateTo max birth date, inclusive, null for no limit
+     * @param consumer receiver of every exported patient
+     */
+    void exportPatients(Boolean isDischarged, LocalDate birthDateFrom, LocalDate birthDateTo,
+                        Consumer<PatientDto> consumer);
+
+    /**
+     * Method for subscribing to changes of patients.
+     * Subscriber receives all not discharged patients first and then every admission, update, vitals and discharge.
+     *
+     * @param subscriber connection of the client, which events are sent to
+     * @return subscription to cancel when the connection is closed
+     */
+    PatientFeedSubscription subscribeToPatientChanges(PatientFeedSubscriber subscriber);
+
+    /**
+     * Method for getting one page of not discharged patients ordered by name.
+     * Pages are addressed by the name of the last patient of the previous page,
+     * so every page costs the same regardless of its depth.
+     *
+     * @param after name of the last patient on the previous page, null for the first page
+     * @param limit max number of patients on the page
+     * @return page of not discharged patients with cursor for the next page
+     */
+    PatientPageDto getNotDischargedPatientsPage(String after, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.example.test.service;
+
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.PatientPageDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking service for working with patients, active with "reactive" profile.
+ * Errors are signalled with the same exceptions as {@link PatientService} throws.
+ */
+public interface ReactivePatientService {
+
+    /**
+     * Method for add new patient.
+     *
+     * @param patientDto new patient
+     * @return added patient
+     */
+    Mono<PatientDto> addNewPatient(PatientDto patientDto);
+
+    /**
+     * Method for change information about patient which has not been changed since expected version.
+     *
+     * @param patientId patient id
+     * @param patientDto information to change
+     * @param expectedVersion version of patient known to client, null to skip the check
+     * @return changed patient
+     */
+    Mono<PatientDto> changeInformationAboutPatient(UUID patientId, PatientDto patientDto, Long expectedVersion);
+
+    /**
+     * Method for discharge patient which has not been changed since expected version.
+     *
+     * @param patientId patient id
+     * @param expectedVersion version of patient known to client, null to skip the check
+     * @return discharged patient
+     */
+    Mono<PatientDto> dischargePatient(UUID patientId, Long expectedVersion);
+
+    /**
+     * Method for getting patient by id, discharged included until it is archived.
+     *
+     * @param patientId patient id
+     * @return found patient
+     */
+    Mono<PatientDto> getPatient(UUID patientId);
+
+    /**
+     * Method for streaming all not discharged patients ordered by name.
+     *
+     * @return not discharged patients, read from database as the subscriber requests them
+     */
+    Flux<PatientDto> getAllNotDischargedPatients();
+
+    /**
+     * Method for getting one page of not discharged patients ordered by name.
+     *
+     * @param after name of the last patient of previous page, null for the first page
+     * @param limit max number of patients on the page
+     * @return page of patients with cursor of the next page
+     */
+    Mono<PatientPageDto> getNotDischargedPatientsPage(String after, int limit);
+}
\ No newline at end of file
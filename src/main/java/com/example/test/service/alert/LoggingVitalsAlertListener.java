@@ -0,0 +1,20 @@
+package com.example.test.service.alert;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class LoggingVitalsAlertListener implements VitalsAlertListener {
+
+    @Override
+    public void onAlert(VitalsAlert alert) {
+        if (alert.state() == VitalsAlertState.RAISED) {
+            log.warn("Alert {} raised for patient {} ({}), value {}",
+                    alert.rule(), alert.patientName(), alert.patientId(), alert.value());
+        } else {
+            log.info("Alert {} cleared for patient {} ({}), value {}",
+                    alert.rule(), alert.patientName(), alert.patientId(), alert.value());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.test.service.alert;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Change of alert state of one patient by one rule, every alert is raised once and cleared once.
+ *
+ * @param patientId patient whose vitals have changed
+ * @param patientName name of the patient
+ * @param rule name of the rule
+ * @param state whether the rule has started or stopped matching
+ * @param value vital checked by the rule at the moment of change
+ * @param changedAt time of the vitals change
+ */
+public record VitalsAlert(UUID patientId, String patientName, String rule, VitalsAlertState state, double value,
+                          Instant changedAt) {
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.example.test.service.alert;
+
+import com.example.test.config.VitalsAlertProperties;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.service.event.PatientChangeType;
+import com.example.test.service.event.PatientChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates alert rules on every committed change of patient vitals, using only the changed patient
+ * and its previous vitals kept in memory, database is never queried.
+ * Alert is sent to listeners when a rule starts matching and once more when it stops matching or patient is discharged.
+ * Patients loaded by import have no previous vitals until their first change.
+ * Zero vitals mean that patient has not been measured yet, they do not match any rule.
+ */
+@Component
+public class VitalsAlertEngine {
+
+    private final VitalsRules rules;
+    private final List<VitalsAlertListener> listeners;
+    private final Map<UUID, PatientVitalsState> stateByPatient = new ConcurrentHashMap<>();
+
+    private final Timer evaluation;
+    private final Counter[] raised;
+
+    public VitalsAlertEngine(VitalsAlertProperties properties, List<VitalsAlertListener> listeners,
+                             MeterRegistry meterRegistry) {
+        this.rules = VitalsRules.compile(properties.getRules());
+        this.listeners = listeners;
+        this.evaluation = Timer.builder("patient.alerts.evaluation")
+                .description("Time of evaluating all alert rules for one vitals change")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.raised = new Counter[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            raised[i] = meterRegistry.counter("patient.alerts.raised", "rule", rules.name(i));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        if (event.type() == PatientChangeType.DISCHARGED) {
+            discharge(event.patient(), event.changedAt());
+        } else {
+            evaluate(event.patient(), event.changedAt());
+        }
+    }
+
+    /**
+     * Method for evaluating rules against new vitals of the patient and sending alerts whose state has changed.
+     */
+    public void evaluate(PatientDto patient, Instant changedAt) {
+        long start = System.nanoTime();
+        long changedAtMillis = changedAt.toEpochMilli();
+
+        PatientVitalsState[] states = new PatientVitalsState[2];
+        stateByPatient.compute(patient.getId(), (id, previous) -> {
+            states[0] = previous;
+            states[1] = isStale(patient, previous) ? previous : next(patient, changedAtMillis, previous);
+            return states[1];
+        });
+
+        long previousRules = states[0] != null ? states[0].activeRules() : 0;
+        long changedRules = previousRules ^ states[1].activeRules();
+        evaluation.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (changedRules != 0) {
+            send(patient, changedRules, states[1].activeRules(), changedAt);
+        }
+    }
+
+    /**
+     * Method for clearing all alerts of the patient, who will not be watched any more.
+     */
+    public void discharge(PatientDto patient, Instant changedAt) {
+        PatientVitalsState previous = stateByPatient.remove(patient.getId());
+        if (previous != null && previous.activeRules() != 0) {
+            send(patient, previous.activeRules(), 0, changedAt);
+        }
+    }
+
+    /**
+     * Changes of the same patient may be committed by several threads and come in different order.
+     * Changes which keep vitals, e.g. of the name, are skipped too.
+     */
+    private static boolean isStale(PatientDto patient, PatientVitalsState previous) {
+        return previous != null && (patient.getVersion() <= previous.version()
+                || patient.getLastTemperature() == previous.temperature() && patient.getLastPulse() == previous.pulse());
+    }
+
+    private PatientVitalsState next(PatientDto patient, long changedAtMillis, PatientVitalsState previous) {
+        long activeRules = previous == null
+                ? rules.evaluate(measured(patient.getLastTemperature()), measured(patient.getLastPulse()),
+                Double.NaN, Double.NaN, 0)
+                : rules.evaluate(measured(patient.getLastTemperature()), measured(patient.getLastPulse()),
+                measured(previous.temperature()), measured(previous.pulse()),
+                changedAtMillis - previous.changedAtMillis());
+
+        return new PatientVitalsState(patient.getVersion(), patient.getLastTemperature(), patient.getLastPulse(),
+                changedAtMillis, activeRules);
+    }
+
+    private static double measured(double vital) {
+        return vital > 0 ? vital : Double.NaN;
+    }
+
+    private void send(PatientDto patient, long changedRules, long activeRules, Instant changedAt) {
+        List<VitalsAlert> alerts = new ArrayList<>(Long.bitCount(changedRules));
+        for (long remaining = changedRules; remaining != 0; remaining &= remaining - 1) {
+            int rule = Long.numberOfTrailingZeros(remaining);
+            boolean active = (activeRules & 1L << rule) != 0;
+            if (active) {
+                raised[rule].increment();
+            }
+            alerts.add(new VitalsAlert(patient.getId(), patient.getName(), rules.name(rule),
+                    active ? VitalsAlertState.RAISED : VitalsAlertState.CLEARED,
+                    rules.isPulse(rule) ? patient.getLastPulse() : patient.getLastTemperature(), changedAt));
+        }
+
+        for (VitalsAlert alert : alerts) {
+            for (VitalsAlertListener listener : listeners) {
+                listener.onAlert(alert);
+            }
+        }
+    }
+
+    private record PatientVitalsState(long version, double temperature, int pulse, long changedAtMillis,
+                                      long activeRules) {
+    }
+}
\ No newline at end of file
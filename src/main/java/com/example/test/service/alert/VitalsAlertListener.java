@@ -0,0 +1,12 @@
+package com.example.test.service.alert;
+
+/**
+ * Receives alerts in the thread which has committed the vitals change, so it should return quickly.
+ */
+public interface VitalsAlertListener {
+
+    /**
+     * Method for receiving raised or cleared alert.
+     */
+    void onAlert(VitalsAlert alert);
+}
\ No newline at end of file
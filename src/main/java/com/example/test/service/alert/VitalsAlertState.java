@@ -0,0 +1,6 @@
+package com.example.test.service.alert;
+
+public enum VitalsAlertState {
+    RAISED,
+    CLEARED
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.example.test.service.alert;
+
+import com.example.test.config.VitalsAlertProperties;
+import com.example.test.config.VitalsAlertProperties.Vital;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Alert rules compiled into flat arrays, evaluation of all rules is a loop of comparisons without allocations.
+ * Missing thresholds are NaN, every comparison with NaN is false, so they never match.
+ */
+public final class VitalsRules {
+
+    public static final int MAX_RULES = Long.SIZE;
+
+    private final String[] names;
+    private final boolean[] pulse;
+    private final double[] above;
+    private final double[] below;
+    private final double[] rise;
+    private final long[] withinMillis;
+
+    private VitalsRules(int size) {
+        names = new String[size];
+        pulse = new boolean[size];
+        above = new double[size];
+        below = new double[size];
+        rise = new double[size];
+        withinMillis = new long[size];
+    }
+
+    /**
+     * @throws IllegalArgumentException if rules are not complete, have the same name or there are too many of them
+     */
+    public static VitalsRules compile(List<VitalsAlertProperties.Rule> rules) {
+        if (rules.size() > MAX_RULES) {
+            throw new IllegalArgumentException("There can be at most " + MAX_RULES + " alert rules");
+        }
+
+        VitalsRules compiled = new VitalsRules(rules.size());
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < rules.size(); i++) {
+            VitalsAlertProperties.Rule rule = rules.get(i);
+            if (rule.getName() == null || rule.getVital() == null) {
+                throw new IllegalArgumentException("Alert rule " + i + " must have name and vital");
+            }
+            if (!names.add(rule.getName())) {
+                throw new IllegalArgumentException("Alert rule name is not unique: " + rule.getName());
+            }
+            if (rule.getAbove() == null && rule.getBelow() == null && rule.getRise() == null) {
+                throw new IllegalArgumentException("Alert rule " + rule.getName() + " has no conditions");
+            }
+
+            compiled.names[i] = rule.getName();
+            compiled.pulse[i] = rule.getVital() == Vital.PULSE;
+            compiled.above[i] = rule.getAbove() != null ? rule.getAbove() : Double.NaN;
+            compiled.below[i] = rule.getBelow() != null ? rule.getBelow() : Double.NaN;
+            compiled.rise[i] = rule.getRise() != null ? rule.getRise() : Double.NaN;
+            compiled.withinMillis[i] = rule.getWithin().toMillis();
+        }
+        return compiled;
+    }
+
+    /**
+     * Finds matching rules, missing values are NaN and do not match any rule.
+     *
+     * @return bit set of matching rules, bit of rule is its index
+     */
+    public long evaluate(double temperature, double pulse, double previousTemperature, double previousPulse,
+                         long millisSincePrevious) {
+        long matching = 0;
+        for (int i = 0; i < names.length; i++) {
+            double value = this.pulse[i] ? pulse : temperature;
+            double previous = this.pulse[i] ? previousPulse : previousTemperature;
+            if (value > above[i] || value < below[i]
+                    || value - previous >= rise[i] && millisSincePrevious <= withinMillis[i]) {
+                matching |= 1L << i;
+            }
+        }
+        return matching;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String name(int rule) {
+        return names[rule];
+    }
+
+    public boolean isPulse(int rule) {
+        return pulse[rule];
+    }
+}
\ No newline at end of file
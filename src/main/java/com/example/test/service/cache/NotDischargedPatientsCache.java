@@ -0,0 +1,198 @@
+package com.example.test.service.cache;
+
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.repository.PatientRepository;
+import com.example.test.service.event.PatientChangeType;
+import com.example.test.service.event.PatientChangedEvent;
+import com.example.test.service.event.PatientsImportedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory list of not discharged patients sorted by name.
+ * It is loaded from database once and then kept up to date by committed {@link PatientChangedEvent}s,
+ * every patient is serialized only when it changes.
+ * Names are ordered by the database collation, which Java cannot reproduce, so after an admission or a rename
+ * the order is read again as ids only, other changes keep it.
+ */
+@Component
+public class NotDischargedPatientsCache {
+
+    private final PatientRepository patientRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer staleness;
+
+    private final String eTagPrefix = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<UUID, byte[]> serializedPatientById = new HashMap<>();
+    private final Map<UUID, PatientDto> patientById = new HashMap<>();
+    private List<UUID> order = new ArrayList<>();
+    private boolean orderIsStale;
+    private boolean loaded;
+    private long generation;
+    private volatile PatientsSnapshot snapshot;
+
+    public NotDischargedPatientsCache(PatientRepository patientRepository, ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry) {
+        this.patientRepository = patientRepository;
+        this.objectMapper = objectMapper;
+        this.hits = meterRegistry.counter("patient.census.cache.hits");
+        this.misses = meterRegistry.counter("patient.census.cache.misses");
+        this.staleness = Timer.builder("patient.census.cache.staleness")
+                .description("Time between a committed patient change and its appearance in the cache")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("patient.census.cache.size", patientById, Map::size).register(meterRegistry);
+    }
+
+    public PatientsSnapshot getSnapshot() {
+        PatientsSnapshot currentSnapshot = snapshot;
+        if (currentSnapshot != null) {
+            hits.increment();
+            return currentSnapshot;
+        }
+
+        misses.increment();
+        synchronized (this) {
+            if (!loaded) {
+                load();
+            }
+            if (orderIsStale) {
+                order = patientRepository.findNotDischargedPatientIds();
+                orderIsStale = false;
+            }
+            if (snapshot == null) {
+                snapshot = new PatientsSnapshot(serialize(), "\"" + eTagPrefix + "-" + generation + "\"");
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Drops cached patients, so they are loaded from database again on next read.
+     * Needed after changes which bypass the write paths of the service.
+     */
+    public synchronized void invalidate() {
+        serializedPatientById.clear();
+        patientById.clear();
+        order = new ArrayList<>();
+        orderIsStale = false;
+        loaded = false;
+        generation++;
+        snapshot = null;
+    }
+
+    /**
+     * Runs before other listeners of imports, so they read imported patients from the cache.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientsImported(PatientsImportedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Runs before the feed fans the change out, so a subscriber which registers in between
+     * gets a snapshot with the change instead of missing it.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPatientChanged(PatientChangedEvent event) {
+        // Not loaded cache will read the change from database
+        if (!loaded) {
+            return;
+        }
+
+        PatientDto patient = event.patient();
+        PatientDto cachedPatient = patientById.get(patient.getId());
+        if (cachedPatient != null && cachedPatient.getVersion() > patient.getVersion()) {
+            return;
+        }
+
+        if (event.type() == PatientChangeType.DISCHARGED || patient.isDischarged()) {
+            remove(cachedPatient);
+        } else if (cachedPatient != null || event.type() == PatientChangeType.ADMITTED) {
+            orderIsStale |= cachedPatient == null || !cachedPatient.getName().equals(patient.getName());
+            remove(cachedPatient);
+            put(patient);
+        } else {
+            // Late update of a patient which has been discharged already
+            return;
+        }
+
+        generation++;
+        snapshot = null;
+        staleness.record(Duration.between(event.changedAt(), Instant.now()));
+    }
+
+    private void load() {
+        List<PatientDto> patients = patientRepository.findNotDischargedPatients();
+        patients.forEach(this::put);
+        order = patients.stream().map(PatientDto::getId).toList();
+        orderIsStale = false;
+        loaded = true;
+    }
+
+    private void put(PatientDto patient) {
+        try {
+            serializedPatientById.put(patient.getId(), objectMapper.writeValueAsBytes(patient));
+            patientById.put(patient.getId(), patient);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void remove(PatientDto patient) {
+        if (patient != null) {
+            serializedPatientById.remove(patient.getId());
+            patientById.remove(patient.getId());
+        }
+    }
+
+    /**
+     * Patients missing in the order, e.g. read from a lagging replica, are appended to the end.
+     * Ids of patients discharged since the order was read are skipped.
+     */
+    private byte[] serialize() {
+        Map<UUID, byte[]> remaining = new HashMap<>(serializedPatientById);
+        List<byte[]> serializedPatients = new ArrayList<>(remaining.size());
+        for (UUID id : order) {
+            byte[] serializedPatient = remaining.remove(id);
+            if (serializedPatient != null) {
+                serializedPatients.add(serializedPatient);
+            }
+        }
+        serializedPatients.addAll(remaining.values());
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write('[');
+        for (byte[] serializedPatient : serializedPatients) {
+            if (body.size() > 1) {
+                body.write(',');
+            }
+            body.writeBytes(serializedPatient);
+        }
+        body.write(']');
+        return body.toByteArray();
+    }
+}
\ No newline at end of file
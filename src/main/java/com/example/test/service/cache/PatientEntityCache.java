@@ -0,0 +1,56 @@
+package com.example.test.service.cache;
+
+import com.example.test.model.entity.Patient;
+import com.example.test.service.event.PatientChangedEvent;
+import com.example.test.service.event.PatientsArchivedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the Hibernate second-level cache region of {@link Patient} consistent with writes,
+ * which are done by native statements Hibernate does not track, and publishes its statistics.
+ * Changed patients are evicted after commit, so a lookup racing with the commit can cache the old state
+ * until the region's expiry. Statistics count every read of the region, including reads Hibernate makes before a put.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class PatientEntityCache {
+
+    public static final String REGION = "patient";
+
+    private static final String METRICS_CACHE_NAME = "patient.entity";
+
+    private final Cache cache;
+
+    public PatientEntityCache(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cache = sessionFactory.getCache();
+
+        JCacheRegionFactory regionFactory = (JCacheRegionFactory) sessionFactory.getCache().getRegionFactory();
+        com.github.benmanes.caffeine.cache.Cache<?, ?> region = regionFactory.getCacheManager()
+                .getCache(REGION)
+                .unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+        CaffeineCacheMetrics.monitor(meterRegistry, region, METRICS_CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", region, cacheRegion -> cacheRegion.stats().hitRate())
+                .tag("cache", METRICS_CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        cache.evict(Patient.class, event.patient().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientsArchived(PatientsArchivedEvent event) {
+        cache.evict(Patient.class);
+    }
+}
\ No newline at end of file
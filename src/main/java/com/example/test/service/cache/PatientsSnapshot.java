@@ -0,0 +1,10 @@
+package com.example.test.service.cache;
+
+/**
+ * Serialized list of patients.
+ *
+ * @param body JSON array of patients
+ * @param eTag version of the list, changes together with the list
+ */
+public record PatientsSnapshot(byte[] body, String eTag) {
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.example.test.service.cache;
+
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.WardStatisticsDto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Aggregates of not discharged patients, every patient is added or removed in O(log n).
+ * Zero temperature or pulse means that patient has not been measured yet, they are left out of aggregates.
+ * Not thread safe.
+ */
+class WardAggregates {
+
+    static final int[] PULSE_BOUNDS = {50, 60, 100, 120};
+    static final String[] PULSE_RANGES = {"<50", "50-59", "60-99", "100-119", "120+"};
+    static final int[] AGE_BOUNDS = {18, 40, 65, 80};
+    static final String[] AGE_RANGES = {"0-17", "18-39", "40-64", "65-79", "80+"};
+
+    private final Map<UUID, PatientDto> patientById = new HashMap<>();
+    private final TreeMap<Double, Integer> patientsByTemperature = new TreeMap<>();
+    private long measuredTemperatures;
+    private double temperatureSum;
+    private final long[] patientsByPulse = new long[PULSE_RANGES.length];
+    private final long[] patientsByAge = new long[AGE_RANGES.length];
+    private LocalDate date;
+
+    WardAggregates(LocalDate date) {
+        this.date = date;
+    }
+
+    PatientDto get(UUID patientId) {
+        return patientById.get(patientId);
+    }
+
+    void put(PatientDto patient) {
+        remove(patient.getId());
+        patientById.put(patient.getId(), patient);
+        count(patient, 1);
+    }
+
+    void remove(UUID patientId) {
+        PatientDto patient = patientById.remove(patientId);
+        if (patient != null) {
+            count(patient, -1);
+        }
+    }
+
+    LocalDate date() {
+        return date;
+    }
+
+    /**
+     * Ages change with the date, so all patients are counted again, once a day.
+     */
+    void moveToDate(LocalDate newDate) {
+        date = newDate;
+        Arrays.fill(patientsByAge, 0);
+        for (PatientDto patient : patientById.values()) {
+            if (patient.getBirthDate() != null) {
+                patientsByAge[ageRange(patient.getBirthDate())]++;
+            }
+        }
+    }
+
+    /**
+     * @return number of patients which are missing in one of aggregates or differ
+     */
+    int countDifferences(WardAggregates other) {
+        Set<UUID> patientIds = new HashSet<>(patientById.keySet());
+        patientIds.addAll(other.patientById.keySet());
+        return (int) patientIds.stream()
+                .filter(patientId -> !Objects.equals(patientById.get(patientId), other.patientById.get(patientId)))
+                .count();
+    }
+
+    WardStatisticsDto toStatistics(Instant reconciledAt) {
+        return WardStatisticsDto.builder()
+                .activePatients(patientById.size())
+                .averageTemperature(measuredTemperatures > 0 ? temperatureSum / measuredTemperatures : null)
+                .maxTemperature(patientsByTemperature.isEmpty() ? null : patientsByTemperature.lastKey())
+                .pulseDistribution(toMap(PULSE_RANGES, patientsByPulse))
+                .ageBrackets(toMap(AGE_RANGES, patientsByAge))
+                .date(date)
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    private void count(PatientDto patient, int delta) {
+        if (patient.getLastTemperature() > 0) {
+            patientsByTemperature.merge(patient.getLastTemperature(), delta,
+                    (count, change) -> count + change == 0 ? null : count + change);
+            measuredTemperatures += delta;
+            temperatureSum += delta * patient.getLastTemperature();
+        }
+        if (patient.getLastPulse() > 0) {
+            patientsByPulse[range(PULSE_BOUNDS, patient.getLastPulse())] += delta;
+        }
+        if (patient.getBirthDate() != null) {
+            patientsByAge[ageRange(patient.getBirthDate())] += delta;
+        }
+    }
+
+    private int ageRange(LocalDate birthDate) {
+        return range(AGE_BOUNDS, Period.between(birthDate, date).getYears());
+    }
+
+    private static int range(int[] bounds, int value) {
+        int range = 0;
+        while (range < bounds.length && value >= bounds[range]) {
+            range++;
+        }
+        return range;
+    }
+
+    private static Map<String, Long> toMap(String[] ranges, long[] counts) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (int i = 0; i < ranges.length; i++) {
+            map.put(ranges[i], counts[i]);
+        }
+        return map;
+    }
+}
\ No newline at end of file
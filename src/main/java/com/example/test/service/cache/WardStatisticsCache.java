@@ -0,0 +1,199 @@
+package com.example.test.service.cache;
+
+import com.example.test.config.WardStatisticsProperties;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.WardStatisticsDto;
+import com.example.test.repository.PatientRepository;
+import com.example.test.service.event.PatientChangeType;
+import com.example.test.service.event.PatientChangedEvent;
+import com.example.test.service.event.PatientsImportedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Statistics of not discharged patients, kept up to date by committed {@link PatientChangedEvent}s.
+ * Every change updates aggregates of one patient and reading statistics costs O(1) whatever the census size.
+ * Aggregates are rebuilt from database at startup, after imports and periodically, to catch changes
+ * which bypass the service. Changes committed while database is read are applied to the rebuilt aggregates again.
+ */
+@Slf4j
+@Component
+public class WardStatisticsCache implements SmartLifecycle {
+
+    private final PatientRepository patientRepository;
+    private final Duration reconcileInterval;
+    private final Counter drift;
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    private WardAggregates aggregates;
+    private List<PatientChangedEvent> changesDuringReconcile;
+    private Instant reconciledAt;
+    private long imports;
+    private volatile boolean loaded;
+    private volatile WardStatisticsDto statistics;
+    private volatile ScheduledExecutorService scheduler;
+
+    public WardStatisticsCache(PatientRepository patientRepository, WardStatisticsProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.patientRepository = patientRepository;
+        this.reconcileInterval = properties.getReconcileInterval();
+        this.drift = Counter.builder("patient.ward.statistics.drift")
+                .description("Patients whose aggregates differed from database on reconciliation")
+                .register(meterRegistry);
+    }
+
+    public WardStatisticsDto getStatistics() {
+        WardStatisticsDto currentStatistics = statistics;
+        if (currentStatistics != null && currentStatistics.getDate().equals(LocalDate.now())) {
+            return currentStatistics;
+        }
+
+        if (!loaded) {
+            reconcile();
+        }
+        synchronized (this) {
+            LocalDate today = LocalDate.now();
+            if (!aggregates.date().equals(today)) {
+                aggregates.moveToDate(today);
+            }
+            statistics = aggregates.toStatistics(reconciledAt);
+            return statistics;
+        }
+    }
+
+    /**
+     * Rebuilds aggregates from database and counts patients whose aggregates have drifted.
+     */
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            long importsBeforeReconcile;
+            synchronized (this) {
+                changesDuringReconcile = new ArrayList<>();
+                importsBeforeReconcile = imports;
+            }
+
+            List<PatientDto> patients;
+            try {
+                patients = patientRepository.findNotDischargedPatients();
+            } catch (RuntimeException exception) {
+                synchronized (this) {
+                    changesDuringReconcile = null;
+                }
+                throw exception;
+            }
+
+            synchronized (this) {
+                WardAggregates rebuiltAggregates = new WardAggregates(LocalDate.now());
+                patients.forEach(rebuiltAggregates::put);
+                changesDuringReconcile.forEach(event -> apply(rebuiltAggregates, event));
+                changesDuringReconcile = null;
+
+                if (loaded) {
+                    int differences = aggregates.countDifferences(rebuiltAggregates);
+                    if (differences > 0) {
+                        log.warn("Ward statistics of {} patients differed from database", differences);
+                        drift.increment(differences);
+                    }
+                }
+
+                aggregates = rebuiltAggregates;
+                reconciledAt = Instant.now();
+                // Patients imported while database was read may be missing
+                loaded = imports == importsBeforeReconcile;
+                statistics = loaded ? aggregates.toStatistics(reconciledAt) : null;
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    /**
+     * Imported patients have no change events, so they are read on the next reconciliation,
+     * which is done by the next read of statistics.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPatientsImported(PatientsImportedEvent event) {
+        imports++;
+        loaded = false;
+        statistics = null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPatientChanged(PatientChangedEvent event) {
+        if (changesDuringReconcile != null) {
+            changesDuringReconcile.add(event);
+        }
+        // Not loaded statistics will read the change from database
+        if (!loaded) {
+            return;
+        }
+
+        apply(aggregates, event);
+        statistics = aggregates.toStatistics(reconciledAt);
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ward-statistics-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reconcileSafely, 0, reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService runningScheduler = scheduler;
+        scheduler = null;
+        runningScheduler.shutdownNow();
+        try {
+            runningScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private static void apply(WardAggregates aggregates, PatientChangedEvent event) {
+        PatientDto patient = event.patient();
+        PatientDto aggregatedPatient = aggregates.get(patient.getId());
+        if (aggregatedPatient != null && aggregatedPatient.getVersion() > patient.getVersion()) {
+            return;
+        }
+
+        if (event.type() == PatientChangeType.DISCHARGED || patient.isDischarged()) {
+            aggregates.remove(patient.getId());
+        } else if (aggregatedPatient != null || event.type() == PatientChangeType.ADMITTED) {
+            // Late update of a patient which has been discharged already is skipped
+            aggregates.put(patient);
+        }
+    }
+
+    private void reconcileSafely() {
+        try {
+            reconcile();
+        } catch (RuntimeException exception) {
+            log.error("Could not reconcile ward statistics", exception);
+        }
+    }
+}
\ No newline at end of file
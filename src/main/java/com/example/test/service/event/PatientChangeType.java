@@ -0,0 +1,8 @@
+package com.example.test.service.event;
+
+public enum PatientChangeType {
+    ADMITTED,
+    UPDATED,
+    VITALS_CHANGED,
+    DISCHARGED
+}
\ No newline at end of file
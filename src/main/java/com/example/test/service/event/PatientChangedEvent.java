@@ -0,0 +1,20 @@
+package com.example.test.service.event;
+
+import com.example.test.controller.dto.PatientDto;
+
+import java.time.Instant;
+
+/**
+ * Published by write paths of patients, listeners should use
+ * {@link org.springframework.transaction.event.TransactionalEventListener} to see only committed changes.
+ *
+ * @param type kind of change
+ * @param patient patient after the change
+ * @param changedAt time of the change
+ */
+public record PatientChangedEvent(PatientChangeType type, PatientDto patient, Instant changedAt) {
+
+    public PatientChangedEvent(PatientChangeType type, PatientDto patient) {
+        this(type, patient, Instant.now());
+    }
+}
\ No newline at end of file
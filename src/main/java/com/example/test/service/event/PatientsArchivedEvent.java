@@ -0,0 +1,16 @@
+package com.example.test.service.event;
+
+import java.time.Instant;
+
+/**
+ * Published after discharged patients are moved to the archive, which bypasses events of single patients.
+ *
+ * @param archived number of moved patients
+ * @param archivedAt time of the archiving
+ */
+public record PatientsArchivedEvent(long archived, Instant archivedAt) {
+
+    public PatientsArchivedEvent(long archived) {
+        this(archived, Instant.now());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.example.test.service.event;
+
+import java.time.Instant;
+
+/**
+ * Published after patients are inserted by import, which bypasses events of single patients.
+ *
+ * @param imported number of inserted patients
+ * @param importedAt time of the import
+ */
+public record PatientsImportedEvent(long imported, Instant importedAt) {
+
+    public PatientsImportedEvent(long imported) {
+        this(imported, Instant.now());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.test.service.feed;
+
+/**
+ * Event of the patient feed, independent of the protocol it is sent with.
+ *
+ * @param name type of the change or {@link PatientFeedHub#SNAPSHOT_EVENT}
+ * @param id   ETag of the snapshot, null for changes
+ * @param data JSON of the change or of the snapshot
+ */
+public record PatientFeedEvent(String name, String id, String data) {
+
+    /**
+     * Carries nothing, it is sent to idle subscribers to find closed connections.
+     */
+    public static final PatientFeedEvent HEARTBEAT = new PatientFeedEvent(null, null, null);
+
+    public boolean isHeartbeat() {
+        return this == HEARTBEAT;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,313 @@
+package com.example.test.service.feed;
+
+import com.example.test.config.PatientFeedProperties;
+import com.example.test.service.cache.NotDischargedPatientsCache;
+import com.example.test.service.cache.PatientsSnapshot;
+import com.example.test.service.event.PatientChangedEvent;
+import com.example.test.service.event.PatientsImportedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed {@link PatientChangedEvent}s to subscribers of the patient feed.
+ * Every subscriber receives the snapshot of not discharged patients first and then every change.
+ * Events are queued per subscriber and sent by a small pool of threads, so writers never wait for clients.
+ * Subscriber whose queue is full is disconnected and has to reconnect for a new snapshot.
+ * Subscriber whose single send takes longer than the send timeout, e.g. a client which stopped reading, is disconnected
+ * as well, and another sender thread takes over while the stalled one waits for the write timeout of the server.
+ * After an import every subscriber receives a new snapshot, because imported patients have no change events.
+ * Changes committed right before subscription may repeat what the snapshot already has.
+ * Subscription is closed after the feed timeout, clients are expected to reconnect.
+ */
+@Slf4j
+@Component
+public class PatientFeedHub implements DisposableBean {
+
+    public static final String SNAPSHOT_EVENT = "SNAPSHOT";
+
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+    private static final long STALLED = Long.MAX_VALUE;
+
+    private final NotDischargedPatientsCache notDischargedPatientsCache;
+    private final ObjectMapper objectMapper;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final int senderThreads;
+    private final long sendTimeoutNanos;
+    private final int maxStalledSenders;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> sendingSubscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter dropped;
+    private int stalledSenders;
+
+    public PatientFeedHub(NotDischargedPatientsCache notDischargedPatientsCache, ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry, PatientFeedProperties properties) {
+        this.notDischargedPatientsCache = notDischargedPatientsCache;
+        this.objectMapper = objectMapper;
+        this.queueCapacity = properties.getQueueCapacity();
+        this.timeoutMillis = properties.getTimeout().toMillis();
+        this.senderThreads = properties.getSenderThreads();
+        this.sendTimeoutNanos = properties.getSendTimeout().toNanos();
+        this.maxStalledSenders = properties.getMaxStalledSenders();
+
+        AtomicInteger senderNumber = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads,
+                0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "patient-feed-sender-" + senderNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "patient-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long heartbeatMillis = properties.getHeartbeatInterval().toMillis();
+        heartbeats.scheduleAtFixedRate(
+                () -> subscribers.forEach(subscriber -> offer(subscriber, PatientFeedEvent.HEARTBEAT)),
+                heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long stallCheckMillis = Math.max(10, Math.min(1000, properties.getSendTimeout().toMillis() / 4));
+        heartbeats.scheduleAtFixedRate(this::disconnectStalledSubscribers,
+                stallCheckMillis, stallCheckMillis, TimeUnit.MILLISECONDS);
+
+        this.dropped = meterRegistry.counter("patient.feed.dropped");
+        Gauge.builder("patient.feed.subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    public PatientFeedSubscription subscribe(PatientFeedSubscriber feedSubscriber) {
+        Subscriber subscriber = new Subscriber(feedSubscriber, new LinkedBlockingDeque<>(queueCapacity));
+        PatientFeedSubscription subscription = () -> subscribers.remove(subscriber);
+
+        // Subscriber is registered before the snapshot is taken, so no change can fall between them.
+        // Changes which are already in the snapshot may be sent again. Events carry no version, so clients
+        // cannot tell them apart, but every change holds the whole committed patient and changes follow
+        // in commit order, so applying it twice leads to the same list.
+        subscribers.add(subscriber);
+        if (!subscriber.events().offerFirst(snapshotEvent())) {
+            drop(subscriber);
+            return subscription;
+        }
+        subscriber.ready().set(true);
+        schedule(subscriber);
+        heartbeats.schedule(() -> close(subscriber), timeoutMillis, TimeUnit.MILLISECONDS);
+
+        return subscription;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        // Event is serialized once for all subscribers
+        PatientFeedEvent feedEvent = new PatientFeedEvent(event.type().name(), null, serialize(event));
+        subscribers.forEach(subscriber -> offer(subscriber, feedEvent));
+    }
+
+    /**
+     * Imported patients have no change events, so subscribers receive a new snapshot instead.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientsImported(PatientsImportedEvent event) {
+        if (subscribers.isEmpty() || event.imported() == 0) {
+            return;
+        }
+
+        PatientFeedEvent snapshotEvent = snapshotEvent();
+        subscribers.forEach(subscriber -> offer(subscriber, snapshotEvent));
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.feedSubscriber().close());
+        subscribers.clear();
+    }
+
+    private void offer(Subscriber subscriber, PatientFeedEvent feedEvent) {
+        if (subscriber.events().offer(feedEvent)) {
+            schedule(subscriber);
+        } else {
+            drop(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            log.debug("Disconnecting patient feed subscriber which is {} events behind", queueCapacity);
+            dropped.increment();
+            close(subscriber);
+        }
+    }
+
+    /**
+     * Subscriber is closed by its sender, so that closing never waits for a send in progress on another thread.
+     */
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.closed().set(true);
+        subscriber.events().clear();
+        subscriber.ready().set(true);
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.ready().get() && subscriber.sending().compareAndSet(false, true)) {
+            senders.execute(() -> send(subscriber));
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        do {
+            PatientFeedEvent feedEvent;
+            while (!subscriber.closed().get() && (feedEvent = subscriber.events().poll()) != null) {
+                if (!send(subscriber, feedEvent)) {
+                    return;
+                }
+            }
+            if (subscriber.closed().get()) {
+                // Sending flag stays set, so nothing is sent after closing
+                subscriber.feedSubscriber().close();
+                return;
+            }
+            subscriber.sending().set(false);
+        } while ((!subscriber.events().isEmpty() || subscriber.closed().get())
+                && subscriber.sending().compareAndSet(false, true));
+    }
+
+    /**
+     * @return false when the subscriber has been disconnected, either by the client or for stalling
+     */
+    private boolean send(Subscriber subscriber, PatientFeedEvent feedEvent) {
+        long startedNanos = System.nanoTime();
+        subscriber.sendStartedNanos().set(startedNanos);
+        sendingSubscribers.add(subscriber);
+        boolean isSent;
+        try {
+            subscriber.feedSubscriber().send(feedEvent);
+            isSent = true;
+        } catch (IOException | IllegalStateException exception) {
+            // Connection is closed by client, the subscriber is already completed
+            subscribers.remove(subscriber);
+            subscriber.events().clear();
+            isSent = false;
+        } finally {
+            sendingSubscribers.remove(subscriber);
+        }
+
+        if (!subscriber.sendStartedNanos().compareAndSet(startedNanos, NOT_SENDING)) {
+            // Subscriber has been disconnected for stalling and another sender has taken over this thread
+            removeStalledSender();
+            if (isSent) {
+                subscriber.feedSubscriber().close();
+            }
+            return false;
+        }
+        return isSent;
+    }
+
+    private void disconnectStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : sendingSubscribers) {
+            long startedNanos = subscriber.sendStartedNanos().get();
+            if (startedNanos != NOT_SENDING && startedNanos != STALLED && now - startedNanos > sendTimeoutNanos
+                    && subscriber.sendStartedNanos().compareAndSet(startedNanos, STALLED)) {
+                if (subscribers.remove(subscriber)) {
+                    log.debug("Disconnecting patient feed subscriber which has not read for {} ms",
+                            TimeUnit.NANOSECONDS.toMillis(now - startedNanos));
+                    dropped.increment();
+                }
+                subscriber.closed().set(true);
+                subscriber.events().clear();
+                addStalledSender();
+            }
+        }
+    }
+
+    /**
+     * Adds a sender instead of a stalled one, unless max stalled senders are replaced already.
+     */
+    private synchronized void addStalledSender() {
+        stalledSenders++;
+        resizeSenders();
+    }
+
+    private synchronized void removeStalledSender() {
+        stalledSenders--;
+        resizeSenders();
+    }
+
+    private void resizeSenders() {
+        int size = senderThreads + Math.min(stalledSenders, maxStalledSenders);
+        // Core size can never exceed maximum size, so they are changed in the order which keeps it
+        if (size > senders.getMaximumPoolSize()) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    int getSenderThreads() {
+        return senders.getCorePoolSize();
+    }
+
+    private PatientFeedEvent snapshotEvent() {
+        PatientsSnapshot snapshot = notDischargedPatientsCache.getSnapshot();
+        return new PatientFeedEvent(SNAPSHOT_EVENT, snapshot.eTag(), new String(snapshot.body(), StandardCharsets.UTF_8));
+    }
+
+    private String serialize(PatientChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * @param sendStartedNanos start of the send in progress, {@link #NOT_SENDING} or {@link #STALLED}
+     */
+    private record Subscriber(PatientFeedSubscriber feedSubscriber, BlockingDeque<PatientFeedEvent> events,
+                              AtomicBoolean ready, AtomicBoolean sending, AtomicBoolean closed,
+                              AtomicLong sendStartedNanos) {
+
+        Subscriber(PatientFeedSubscriber feedSubscriber, BlockingDeque<PatientFeedEvent> events) {
+            this(feedSubscriber, events, new AtomicBoolean(), new AtomicBoolean(), new AtomicBoolean(),
+                    new AtomicLong(NOT_SENDING));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.test.service.feed;
+
+import java.io.IOException;
+
+/**
+ * Connection of one client of the patient feed. Events are sent one at a time by sender threads of the feed.
+ */
+public interface PatientFeedSubscriber {
+
+    /**
+     * @throws IOException when the connection is closed by the client
+     */
+    void send(PatientFeedEvent event) throws IOException;
+
+    /**
+     * Closes the connection, the client is expected to reconnect for a new snapshot.
+     */
+    void close();
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.test.service.feed;
+
+/**
+ * Registration of a {@link PatientFeedSubscriber}, cancelled when its connection is closed.
+ */
+public interface PatientFeedSubscription {
+
+    /**
+     * Stops sending events to the subscriber, calling it again does nothing.
+     */
+    void cancel();
+}
\ No newline at end of file
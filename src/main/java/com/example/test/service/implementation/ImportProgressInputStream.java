@@ -0,0 +1,56 @@
+package com.example.test.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Logs the number of read lines and the import rate while the stream is consumed.
+ */
+@Slf4j
+class ImportProgressInputStream extends FilterInputStream {
+
+    static final long LOG_EVERY_LINES = 100_000;
+
+    private final long startNanos;
+    private long lines;
+    private long nextLogLines = LOG_EVERY_LINES;
+
+    ImportProgressInputStream(InputStream inputStream, long startNanos) {
+        super(inputStream);
+        this.startNanos = startNanos;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int value = super.read();
+        if (value == '\n') {
+            countLines(1);
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        int newLines = 0;
+        for (int i = offset; i < offset + read; i++) {
+            if (buffer[i] == '\n') {
+                newLines++;
+            }
+        }
+        countLines(newLines);
+        return read;
+    }
+
+    private void countLines(int newLines) {
+        lines += newLines;
+        if (lines >= nextLogLines) {
+            nextLogLines += LOG_EVERY_LINES;
+            log.info("Import has read {} lines, {} rows/s", lines,
+                    Math.round(lines * 1e9 / (System.nanoTime() - startNanos)));
+        }
+    }
+}
\ No newline at end of file
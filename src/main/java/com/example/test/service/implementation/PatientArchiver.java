@@ -0,0 +1,112 @@
+package com.example.test.service.implementation;
+
+import com.example.test.config.PatientArchiveProperties;
+import com.example.test.repository.PatientArchiveRepository;
+import com.example.test.service.event.PatientsArchivedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically moves patients discharged long enough ago to the archive, so the patient table holds the census
+ * and only recently discharged patients. Every batch is moved in its own short transaction.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "patient.archive", name = "enabled", havingValue = "true")
+public class PatientArchiver implements SmartLifecycle {
+
+    private final PatientArchiveRepository patientArchiveRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minDischargedAge;
+    private final int batchSize;
+    private final Duration interval;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    public PatientArchiver(PatientArchiveRepository patientArchiveRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           PatientArchiveProperties properties) {
+        this.patientArchiveRepository = patientArchiveRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minDischargedAge = properties.getMinDischargedAge();
+        this.batchSize = properties.getBatchSize();
+        this.interval = properties.getInterval();
+    }
+
+    /**
+     * Moves every patient discharged before min discharged age to the archive.
+     *
+     * @return number of archived patients
+     */
+    public int archive() {
+        Instant archivedAt = Instant.now();
+        Instant dischargedBefore = archivedAt.minus(minDischargedAge);
+        // Patients discharged during the run are not old enough, so batches never need other partitions
+        patientArchiveRepository.createPartitions(dischargedBefore, archivedAt);
+
+        int archived = 0;
+        int moved;
+        do {
+            Integer batchMoved = transactionTemplate.execute(status ->
+                    patientArchiveRepository.moveToArchive(dischargedBefore, archivedAt, batchSize));
+            moved = batchMoved == null ? 0 : batchMoved;
+            archived += moved;
+        } while (moved == batchSize);
+
+        if (archived > 0) {
+            log.info("Archived {} patients discharged before {}", archived, dischargedBefore);
+            eventPublisher.publishEvent(new PatientsArchivedEvent(archived));
+        }
+        return archived;
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "patient-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::archiveSafely, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService runningScheduler = scheduler;
+        scheduler = null;
+        runningScheduler.shutdownNow();
+        try {
+            runningScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void archiveSafely() {
+        try {
+            archive();
+        } catch (RuntimeException exception) {
+            log.error("Could not archive discharged patients", exception);
+        }
+    }
+}
\ No newline at end of file
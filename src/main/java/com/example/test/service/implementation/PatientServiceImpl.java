@@ -1,80 +1,336 @@
 package com.example.test.service.implementation;
 
+import com.example.test.controller.dto.PatientBatchDischargeDto;
+import com.example.test.controller.dto.PatientBatchResultDto;
+import com.example.test.controller.dto.PatientBatchStatus;
 import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.PatientImportConflictDto;
+import com.example.test.controller.dto.PatientImportResultDto;
+import com.example.test.controller.dto.PatientPageDto;
+import com.example.test.controller.dto.PatientVitalsDto;
+import com.example.test.controller.dto.WardStatisticsDto;
 import com.example.test.controller.mapper.PatientMapper;
+import com.example.test.exception.IncorrectRequestParameterException;
 import com.example.test.exception.NoPatientWithSuchIdException;
 import com.example.test.exception.NotUniquePatientNameException;
+import com.example.test.exception.PatientException;
+import com.example.test.exception.PatientVersionMismatchException;
 import com.example.test.model.entity.Patient;
+import com.example.test.model.entity.PatientVitals;
+import com.example.test.model.id.PatientIdGenerator;
+import com.example.test.repository.PatientImportRepository;
+import com.example.test.repository.PatientJdbcRepository;
 import com.example.test.repository.PatientRepository;
 import com.example.test.service.PatientService;
-import jakarta.transaction.Transactional;
+import com.example.test.service.cache.NotDischargedPatientsCache;
+import com.example.test.service.cache.PatientsSnapshot;
+import com.example.test.service.cache.WardStatisticsCache;
+import com.example.test.service.event.PatientChangeType;
+import com.example.test.service.event.PatientChangedEvent;
+import com.example.test.service.event.PatientsImportedEvent;
+import com.example.test.service.feed.PatientFeedHub;
+import com.example.test.service.feed.PatientFeedSubscriber;
+import com.example.test.service.feed.PatientFeedSubscription;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class PatientServiceImpl implements PatientService {
 
     private final PatientRepository patientRepository;
+    private final PatientJdbcRepository patientJdbcRepository;
+    private final PatientImportRepository patientImportRepository;
     private final PatientMapper patientMapper;
+    private final PatientIdGenerator patientIdGenerator;
+    private final PatientVitalsBuffer patientVitalsBuffer;
+    private final NotDischargedPatientsCache notDischargedPatientsCache;
+    private final WardStatisticsCache wardStatisticsCache;
+    private final PatientFeedHub patientFeedHub;
+    private final ApplicationEventPublisher eventPublisher;
 
     public static final String NO_PATIENT_BY_ID_OR_IS_DISCHARGED = "There no patient with such id or this patient has been discharged!";
+    public static final String NO_PATIENT_BY_ID = "There no patient with such id!";
     public static final String NOT_UNIQUE_NAME = "New patient's name is not unique!";
+    public static final String PATIENT_VERSION_MISMATCH = "Patient has been changed since the requested version!";
+    public static final String INCORRECT_PAGE_LIMIT = "Page limit must be between 1 and 500!";
+    public static final String INCORRECT_SEARCH_QUERY = "Search query must not be blank!";
+    public static final String INCORRECT_SEARCH_LIMIT = "Search limit must be between 1 and 50!";
+    public static final String INCORRECT_BATCH_SIZE = "Batch must contain from 1 to 10000 patients!";
+    public static final String INCORRECT_IMPORT_FILE = "Import file must be CSV with header "
+            + PatientImportRepository.CSV_COLUMNS + ": ";
+
+    public static final int MAX_PAGE_LIMIT = 500;
+    public static final int MAX_SEARCH_LIMIT = 50;
+    public static final int MAX_BATCH_SIZE = 10_000;
+    public static final int IMPORT_CONFLICT_SAMPLE_SIZE = 100;
+
+    public static final String NAME_UNIQUE_CONSTRAINT = "order_date_unique";
 
     @Override
     @Transactional
     public PatientDto addNewPatient(PatientDto patientDto) {
         Patient patient = patientMapper.toPatient(patientDto);
+        patient.setId(patientIdGenerator.generate());
+
+        return patientRepository.insertIfNameIsUnique(patient)
+                .map(patientMapper::toPatientDto)
+                .map(addedPatient -> publishChange(PatientChangeType.ADMITTED, addedPatient))
+                .orElseThrow(() -> new NotUniquePatientNameException(NOT_UNIQUE_NAME));
+    }
+
+    @Override
+    @Transactional
+    public List<PatientBatchResultDto> addNewPatients(List<PatientDto> patientDtoList) {
+        if (patientDtoList.isEmpty() || patientDtoList.size() > MAX_BATCH_SIZE) {
+            throw new IncorrectRequestParameterException(INCORRECT_BATCH_SIZE);
+        }
 
-        if (patientRepository.existsByName(patient.getName())) {
-            throw new NotUniquePatientNameException(NOT_UNIQUE_NAME);
+        Set<String> takenNames = new HashSet<>(patientRepository.findExistingNames(
+                patientDtoList.stream().map(PatientDto::getName).toList()));
+
+        Patient[] patientByItem = new Patient[patientDtoList.size()];
+        List<Patient> newPatients = new ArrayList<>();
+        for (int i = 0; i < patientDtoList.size(); i++) {
+            if (takenNames.add(patientDtoList.get(i).getName())) {
+                Patient patient = patientMapper.toPatient(patientDtoList.get(i));
+                patient.setId(patientIdGenerator.generate());
+                patientByItem[i] = patient;
+                newPatients.add(patient);
+            }
         }
 
-        return patientMapper.toPatientDto(patientRepository.save(patient));
+        // Names could have been taken after the check, so the insert itself reports conflicts as well
+        boolean[] inserted = patientJdbcRepository.insertAllIfNameIsUnique(newPatients);
+
+        List<PatientBatchResultDto> results = new ArrayList<>(patientDtoList.size());
+        int newPatientIndex = 0;
+        for (int i = 0; i < patientDtoList.size(); i++) {
+            Patient patient = patientByItem[i];
+            boolean created = patient != null && inserted[newPatientIndex++];
+
+            results.add(PatientBatchResultDto.builder()
+                    .name(patientDtoList.get(i).getName())
+                    .status(created ? PatientBatchStatus.CREATED : PatientBatchStatus.NOT_UNIQUE_NAME)
+                    .patient(created ? publishChange(PatientChangeType.ADMITTED, patientMapper.toPatientDto(patient)) : null)
+                    .build());
+        }
+
+        return results;
     }
 
     @Override
     @Transactional
-    public PatientDto changeInformationAboutPatient(UUID patientId, PatientDto patientDto) {
-        if (!patientRepository.existsByIdAndIsDischargedIsFalse(patientId)) {
-            throw new NoPatientWithSuchIdException(NO_PATIENT_BY_ID_OR_IS_DISCHARGED);
-        }
+    public PatientImportResultDto importPatients(InputStream csv) {
+        long start = System.nanoTime();
 
-        if (patientRepository.existsByName(patientDto.getName())) {
-            throw new NotUniquePatientNameException(NOT_UNIQUE_NAME);
+        patientImportRepository.createStagingTable();
+        long rows;
+        try {
+            rows = patientImportRepository.copyIntoStagingTable(new ImportProgressInputStream(csv, start));
+        } catch (DataAccessException exception) {
+            throw new IncorrectRequestParameterException(
+                    INCORRECT_IMPORT_FILE + exception.getMostSpecificCause().getMessage());
         }
 
-        Patient patient = patientRepository.getReferenceById(patientId);
-        patientMapper.updatePatient(patientDto, patient);
+        List<PatientImportConflictDto> conflictSample =
+                patientImportRepository.findConflicts(IMPORT_CONFLICT_SAMPLE_SIZE);
+        long imported = patientImportRepository.mergeStagingTable();
+        eventPublisher.publishEvent(new PatientsImportedEvent(imported));
 
-        return patientMapper.toPatientDto(patientRepository.save(patient));
+        return PatientImportResultDto.builder()
+                .rows(rows)
+                .imported(imported)
+                .conflicts(rows - imported)
+                .conflictSample(conflictSample)
+                .rowsPerSecond(rows * 1e9 / (System.nanoTime() - start))
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public PatientDto changeInformationAboutPatient(UUID patientId, PatientDto patientDto) {
+        return changeInformationAboutPatient(patientId, patientDto, null);
+    }
+
+    @Override
+    @Transactional
+    public PatientDto changeInformationAboutPatient(UUID patientId, PatientDto patientDto, Long expectedVersion) {
+        Patient patient = patientMapper.toPatient(patientDto);
+
+        try {
+            return patientRepository.updateIfNotDischarged(patientId, patient, expectedVersion)
+                    .map(patientMapper::toPatientDto)
+                    .map(changedPatient -> publishChange(PatientChangeType.UPDATED, changedPatient))
+                    .orElseThrow(() -> notChangedPatientException(patientId, expectedVersion));
+        } catch (DataIntegrityViolationException exception) {
+            if (isNotUniqueNameViolation(exception)) {
+                throw new NotUniquePatientNameException(NOT_UNIQUE_NAME);
+            }
+            throw exception;
+        }
     }
 
     @Override
     @Transactional
     public PatientDto dischargePatient(UUID patientId) {
-        if (!patientRepository.existsByIdAndIsDischargedIsFalse(patientId)) {
-            throw new NoPatientWithSuchIdException(NO_PATIENT_BY_ID_OR_IS_DISCHARGED);
+        return dischargePatient(patientId, null);
+    }
+
+    @Override
+    @Transactional
+    public PatientDto dischargePatient(UUID patientId, Long expectedVersion) {
+        return patientRepository.dischargeIfNotDischarged(patientId, expectedVersion)
+                .map(patientMapper::toPatientDto)
+                .map(dischargedPatient -> publishChange(PatientChangeType.DISCHARGED, dischargedPatient))
+                .orElseThrow(() -> notChangedPatientException(patientId, expectedVersion));
+    }
+
+    @Override
+    @Transactional
+    public PatientBatchDischargeDto dischargePatients(List<UUID> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new IncorrectRequestParameterException(INCORRECT_BATCH_SIZE);
         }
 
-        Patient patient = patientRepository.getReferenceById(patientId);
-        patient.setDischarged(true);
+        List<PatientDto> discharged = patientJdbcRepository.dischargeAllIfNotDischarged(ids).stream()
+                .map(dischargedPatient -> publishChange(PatientChangeType.DISCHARGED, dischargedPatient))
+                .toList();
 
-        return patientMapper.toPatientDto(patientRepository.save(patient));
+        Set<UUID> dischargedIds = discharged.stream().map(PatientDto::getId).collect(Collectors.toSet());
+        List<UUID> notDischargedIds = ids.stream()
+                .distinct()
+                .filter(id -> !dischargedIds.contains(id))
+                .toList();
+
+        return PatientBatchDischargeDto.builder()
+                .discharged(discharged)
+                .notDischargedIds(notDischargedIds)
+                .build();
     }
 
     @Override
+    public void addVitals(UUID patientId, PatientVitalsDto patientVitalsDto) {
+        patientVitalsBuffer.add(PatientVitals.builder()
+                .patientId(patientId)
+                .temperature(patientVitalsDto.getTemperature())
+                .pulse(patientVitalsDto.getPulse())
+                .measuredAt(patientVitalsDto.getMeasuredAt() != null ? patientVitalsDto.getMeasuredAt() : Instant.now())
+                .build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PatientDto getPatient(UUID patientId) {
+        return patientRepository.findById(patientId)
+                .map(patientMapper::toPatientDto)
+                .orElseThrow(() -> new NoPatientWithSuchIdException(NO_PATIENT_BY_ID));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<PatientDto> getAllNotDischargedPatients() {
-        List<Patient> patientList = patientRepository.findByIsDischargedIsFalseOrderByNameAsc();
+        return patientRepository.findNotDischargedPatients();
+    }
+
+    @Override
+    public PatientsSnapshot getNotDischargedPatientsSnapshot() {
+        return notDischargedPatientsCache.getSnapshot();
+    }
+
+    @Override
+    public WardStatisticsDto getWardStatistics() {
+        return wardStatisticsCache.getStatistics();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PatientDto> searchPatients(String query, boolean activeOnly, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IncorrectRequestParameterException(INCORRECT_SEARCH_QUERY);
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IncorrectRequestParameterException(INCORRECT_SEARCH_LIMIT);
+        }
+
+        return patientJdbcRepository.searchByName(query.strip().toLowerCase(Locale.ROOT), activeOnly, limit);
+    }
 
-        if (patientList.isEmpty()) {
-            return new ArrayList<>();
+    @Override
+    @Transactional(readOnly = true)
+    public void exportPatients(Boolean isDischarged, LocalDate birthDateFrom, LocalDate birthDateTo,
+                               Consumer<PatientDto> consumer) {
+        try (Stream<PatientDto> patients =
+                     patientJdbcRepository.streamPatients(isDischarged, birthDateFrom, birthDateTo)) {
+            patients.forEach(consumer);
+        }
+    }
+
+    @Override
+    public PatientFeedSubscription subscribeToPatientChanges(PatientFeedSubscriber subscriber) {
+        return patientFeedHub.subscribe(subscriber);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PatientPageDto getNotDischargedPatientsPage(String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new IncorrectRequestParameterException(INCORRECT_PAGE_LIMIT);
+        }
+
+        // One extra row tells whether there is a next page without a separate count query
+        Limit pageLimit = Limit.of(limit + 1);
+        List<PatientDto> patientList = after == null
+                ? patientRepository.findNotDischargedPatients(pageLimit)
+                : patientRepository.findNotDischargedPatientsWithNameAfter(after, pageLimit);
+
+        List<PatientDto> patients = patientList.size() > limit ? patientList.subList(0, limit) : patientList;
+        String nextCursor = patientList.size() > limit ? patients.get(limit - 1).getName() : null;
+
+        return PatientPageDto.builder()
+                .patients(patients)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private PatientDto publishChange(PatientChangeType type, PatientDto patientDto) {
+        eventPublisher.publishEvent(new PatientChangedEvent(type, patientDto));
+        return patientDto;
+    }
+
+    /**
+     * Conditional update has not changed any row, so the patient is either missing, discharged
+     * or has been changed since the expected version. Only the last case needs one more query.
+     */
+    private PatientException notChangedPatientException(UUID patientId, Long expectedVersion) {
+        if (expectedVersion != null && patientRepository.existsByIdAndIsDischargedIsFalse(patientId)) {
+            return new PatientVersionMismatchException(PATIENT_VERSION_MISMATCH);
         }
 
-        return patientList.stream().map(patientMapper::toPatientDto).toList();
+        return new NoPatientWithSuchIdException(NO_PATIENT_BY_ID_OR_IS_DISCHARGED);
+    }
+
+    private boolean isNotUniqueNameViolation(DataIntegrityViolationException exception) {
+        return exception.getCause() instanceof ConstraintViolationException violation
+                && NAME_UNIQUE_CONSTRAINT.equals(violation.getConstraintName());
     }
 }
\ No newline at end of file
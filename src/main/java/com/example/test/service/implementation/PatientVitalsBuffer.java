@@ -0,0 +1,261 @@
+package com.example.test.service.implementation;
+
+import com.example.test.config.VitalsBufferProperties;
+import com.example.test.controller.mapper.PatientMapper;
+import com.example.test.exception.VitalsBufferIsFullException;
+import com.example.test.exception.VitalsBufferIsStoppedException;
+import com.example.test.model.entity.PatientVitals;
+import com.example.test.repository.PatientVitalsRepository;
+import com.example.test.service.event.PatientChangeType;
+import com.example.test.service.event.PatientChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for vitals readings.
+ * Readings are flushed in batches when batch size is reached or flush interval ends, and on shutdown.
+ * Every flush appends all readings and updates last vitals of every patient only once, with the latest reading.
+ * A batch which could not be saved is kept and retried with backoff before newer readings, which wait
+ * in the buffer meanwhile, so at most capacity plus one batch of readings is held.
+ * The batch is dropped only after the last attempt, dropped readings are counted.
+ * The buffer is stopped after the web server, so readings accepted by requests finishing during graceful shutdown
+ * are still flushed, readings added after that are rejected.
+ */
+@Slf4j
+@Component
+public class PatientVitalsBuffer implements SmartLifecycle {
+
+    public static final String VITALS_BUFFER_IS_FULL = "Too many vitals are waiting for saving, try again later!";
+    public static final String VITALS_BUFFER_IS_STOPPED = "Vitals are not accepted, the service is shutting down!";
+
+    /**
+     * Below the graceful shutdown and the web server stop phases, which are
+     * SMART_LIFECYCLE_PHASE and SMART_LIFECYCLE_PHASE - 1024.
+     */
+    public static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    private final PatientVitalsRepository patientVitalsRepository;
+    private final PatientMapper patientMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final int maxSaveAttempts;
+    private final long retryBackoffNanos;
+    private final Counter droppedReadings;
+
+    private final BlockingQueue<PatientVitals> readings;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Object flushSignal = new Object();
+
+    private List<PatientVitals> failedBatch;
+    private int failedAttempts;
+    private volatile long retryAtNanos;
+    private volatile boolean retryPending;
+    private volatile Thread flusher;
+    private volatile boolean stopped;
+
+    public PatientVitalsBuffer(PatientVitalsRepository patientVitalsRepository,
+                               PatientMapper patientMapper,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               VitalsBufferProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.patientVitalsRepository = patientVitalsRepository;
+        this.patientMapper = patientMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalMillis = properties.getFlushInterval().toMillis();
+        this.maxSaveAttempts = properties.getMaxSaveAttempts();
+        this.retryBackoffNanos = properties.getRetryBackoff().toNanos();
+        this.readings = new ArrayBlockingQueue<>(properties.getCapacity());
+        this.droppedReadings = Counter.builder("patient.vitals.dropped")
+                .description("Accepted vitals readings which could not be saved")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds reading to the buffer without waiting for database.
+     *
+     * @throws VitalsBufferIsFullException if the buffer has reached its capacity
+     * @throws VitalsBufferIsStoppedException if the buffer has been stopped
+     */
+    public void add(PatientVitals vitals) {
+        if (stopped) {
+            throw new VitalsBufferIsStoppedException(VITALS_BUFFER_IS_STOPPED);
+        }
+        if (!readings.offer(vitals)) {
+            throw new VitalsBufferIsFullException(VITALS_BUFFER_IS_FULL);
+        }
+        // The last flush on stop could have run before the offer, the reading is taken back if it is still here
+        if (stopped && readings.remove(vitals)) {
+            throw new VitalsBufferIsStoppedException(VITALS_BUFFER_IS_STOPPED);
+        }
+
+        if (readings.size() >= batchSize) {
+            synchronized (flushSignal) {
+                flushSignal.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Saves all readings which are in the buffer at the moment of the call, a failed batch is retried first
+     * without waiting for its backoff. Stops at the first batch which could not be saved.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (failedBatch != null && !save(failedBatch)) {
+                return;
+            }
+
+            int remaining = readings.size();
+            while (remaining > 0) {
+                List<PatientVitals> batch = new ArrayList<>(Math.min(remaining, batchSize));
+                readings.drainTo(batch, Math.min(remaining, batchSize));
+                if (batch.isEmpty()) {
+                    return;
+                }
+                remaining -= batch.size();
+                if (!save(batch)) {
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        flusher = new Thread(this::flushContinuously, "patient-vitals-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        Thread runningFlusher = flusher;
+        flusher = null;
+        runningFlusher.interrupt();
+        try {
+            runningFlusher.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        flush();
+        flushLock.lock();
+        try {
+            int unsaved = readings.size() + (failedBatch != null ? failedBatch.size() : 0);
+            if (unsaved > 0) {
+                log.error("Dropped {} vitals readings which could not be saved before stop", unsaved);
+                droppedReadings.increment(unsaved);
+                readings.clear();
+                failedBatch = null;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return flusher != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void flushContinuously() {
+        while (flusher == Thread.currentThread()) {
+            try {
+                if (retryPending) {
+                    TimeUnit.NANOSECONDS.sleep(retryAtNanos - System.nanoTime());
+                } else {
+                    synchronized (flushSignal) {
+                        if (readings.size() < batchSize) {
+                            flushSignal.wait(flushIntervalMillis);
+                        }
+                    }
+                }
+            } catch (InterruptedException exception) {
+                return;
+            }
+
+            flush();
+        }
+    }
+
+    /**
+     * Keeps the batch for retry when it could not be saved, until attempts are exhausted.
+     *
+     * @return false if the batch is kept for retry
+     */
+    private boolean save(List<PatientVitals> batch) {
+        Map<UUID, PatientVitals> latestVitals = new HashMap<>();
+        for (PatientVitals vitals : batch) {
+            latestVitals.merge(vitals.getPatientId(), vitals,
+                    (previous, next) -> next.getMeasuredAt().isBefore(previous.getMeasuredAt()) ? previous : next);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                patientVitalsRepository.insertAll(batch);
+                patientVitalsRepository.updateLastVitals(latestVitals.values()).stream()
+                        .map(patientMapper::toPatientDto)
+                        .forEach(patient -> eventPublisher.publishEvent(
+                                new PatientChangedEvent(PatientChangeType.VITALS_CHANGED, patient)));
+            });
+        } catch (RuntimeException exception) {
+            return retryLater(batch, exception);
+        }
+
+        failedBatch = null;
+        failedAttempts = 0;
+        retryPending = false;
+        return true;
+    }
+
+    private boolean retryLater(List<PatientVitals> batch, RuntimeException exception) {
+        failedAttempts = batch == failedBatch ? failedAttempts + 1 : 1;
+        if (failedAttempts >= maxSaveAttempts) {
+            log.error("Dropped {} vitals readings after {} failed attempts", batch.size(), failedAttempts, exception);
+            droppedReadings.increment(batch.size());
+            failedBatch = null;
+            failedAttempts = 0;
+            retryPending = false;
+            return true;
+        }
+
+        log.warn("Could not save {} vitals readings, attempt {} of {}", batch.size(), failedAttempts,
+                maxSaveAttempts, exception);
+        failedBatch = batch;
+        retryAtNanos = System.nanoTime() + (retryBackoffNanos << (failedAttempts - 1));
+        retryPending = true;
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.example.test.service.implementation;
+
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.PatientPageDto;
+import com.example.test.exception.IncorrectRequestParameterException;
+import com.example.test.exception.NoPatientWithSuchIdException;
+import com.example.test.exception.NotUniquePatientNameException;
+import com.example.test.exception.PatientVersionMismatchException;
+import com.example.test.model.id.PatientIdGenerator;
+import com.example.test.repository.PatientR2dbcRepository;
+import com.example.test.service.ReactivePatientService;
+import com.example.test.service.event.PatientChangeType;
+import com.example.test.service.event.PatientChangedEvent;
+import io.r2dbc.postgresql.api.PostgresqlException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.test.service.implementation.PatientServiceImpl.INCORRECT_PAGE_LIMIT;
+import static com.example.test.service.implementation.PatientServiceImpl.MAX_PAGE_LIMIT;
+import static com.example.test.service.implementation.PatientServiceImpl.NAME_UNIQUE_CONSTRAINT;
+import static com.example.test.service.implementation.PatientServiceImpl.NOT_UNIQUE_NAME;
+import static com.example.test.service.implementation.PatientServiceImpl.NO_PATIENT_BY_ID;
+import static com.example.test.service.implementation.PatientServiceImpl.NO_PATIENT_BY_ID_OR_IS_DISCHARGED;
+import static com.example.test.service.implementation.PatientServiceImpl.PATIENT_VERSION_MISMATCH;
+
+/**
+ * Every write is a single auto-committed statement, so changes are published as soon as it completes.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactivePatientServiceImpl implements ReactivePatientService {
+
+    private final PatientR2dbcRepository patientR2dbcRepository;
+    private final PatientIdGenerator patientIdGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Mono<PatientDto> addNewPatient(PatientDto patientDto) {
+        return patientR2dbcRepository.insertIfNameIsUnique(patientIdGenerator.generate(), patientDto)
+                .switchIfEmpty(Mono.error(() -> new NotUniquePatientNameException(NOT_UNIQUE_NAME)))
+                .delayUntil(addedPatient -> publishChange(PatientChangeType.ADMITTED, addedPatient));
+    }
+
+    @Override
+    public Mono<PatientDto> changeInformationAboutPatient(UUID patientId, PatientDto patientDto, Long expectedVersion) {
+        return patientR2dbcRepository.updateIfNotDischarged(patientId, patientDto, expectedVersion)
+                .onErrorMap(this::isNotUniqueNameViolation, exception -> new NotUniquePatientNameException(NOT_UNIQUE_NAME))
+                .switchIfEmpty(notChangedPatientException(patientId, expectedVersion))
+                .delayUntil(changedPatient -> publishChange(PatientChangeType.UPDATED, changedPatient));
+    }
+
+    @Override
+    public Mono<PatientDto> dischargePatient(UUID patientId, Long expectedVersion) {
+        return patientR2dbcRepository.dischargeIfNotDischarged(patientId, expectedVersion)
+                .switchIfEmpty(notChangedPatientException(patientId, expectedVersion))
+                .delayUntil(dischargedPatient -> publishChange(PatientChangeType.DISCHARGED, dischargedPatient));
+    }
+
+    @Override
+    public Mono<PatientDto> getPatient(UUID patientId) {
+        return patientR2dbcRepository.findById(patientId)
+                .switchIfEmpty(Mono.error(() -> new NoPatientWithSuchIdException(NO_PATIENT_BY_ID)));
+    }
+
+    @Override
+    public Flux<PatientDto> getAllNotDischargedPatients() {
+        return patientR2dbcRepository.findNotDischargedPatients();
+    }
+
+    @Override
+    public Mono<PatientPageDto> getNotDischargedPatientsPage(String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            return Mono.error(new IncorrectRequestParameterException(INCORRECT_PAGE_LIMIT));
+        }
+
+        // One extra row tells whether there is a next page without a separate count query
+        Flux<PatientDto> patientFlux = after == null
+                ? patientR2dbcRepository.findNotDischargedPatients(limit + 1)
+                : patientR2dbcRepository.findNotDischargedPatientsWithNameAfter(after, limit + 1);
+
+        return patientFlux.collectList().map(patientList -> {
+            List<PatientDto> patients = patientList.size() > limit ? patientList.subList(0, limit) : patientList;
+            String nextCursor = patientList.size() > limit ? patients.get(limit - 1).getName() : null;
+
+            return PatientPageDto.builder()
+                    .patients(patients)
+                    .nextCursor(nextCursor)
+                    .build();
+        });
+    }
+
+    /**
+     * Listeners block, e.g. the census cache waits for its monitor while it is loaded by JDBC,
+     * so they run on the bounded elastic scheduler instead of the event loop.
+     * The change is emitted only after all listeners have handled it.
+     */
+    private Mono<Void> publishChange(PatientChangeType type, PatientDto patientDto) {
+        return Mono.fromRunnable(() -> eventPublisher.publishEvent(new PatientChangedEvent(type, patientDto)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    /**
+     * Conditional update has not changed any row, so the patient is either missing, discharged
+     * or has been changed since the expected version. Only the last case needs one more query.
+     */
+    private Mono<PatientDto> notChangedPatientException(UUID patientId, Long expectedVersion) {
+        Mono<Boolean> versionMismatch = expectedVersion != null
+                ? patientR2dbcRepository.existsByIdAndIsDischargedIsFalse(patientId)
+                : Mono.just(false);
+
+        return versionMismatch.flatMap(mismatch -> Mono.<PatientDto>error(mismatch
+                ? new PatientVersionMismatchException(PATIENT_VERSION_MISMATCH)
+                : new NoPatientWithSuchIdException(NO_PATIENT_BY_ID_OR_IS_DISCHARGED)));
+    }
+
+    private boolean isNotUniqueNameViolation(Throwable exception) {
+        return exception instanceof DataIntegrityViolationException
+                && exception.getCause() instanceof PostgresqlException violation
+                && violation.getErrorDetails().getConstraintName().filter(NAME_UNIQUE_CONSTRAINT::equals).isPresent();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,2 @@
+ALTER TABLE patient
+    ADD COLUMN version bigint NOT NULL DEFAULT 0
\ No newline at end of file
@@ -0,0 +1,2 @@
+ALTER TABLE patient
+    ADD COLUMN discharged_at timestamptz
\ No newline at end of file
@@ -0,0 +1,5 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX patient_lower_name_pattern_idx ON patient (lower(name) text_pattern_ops);
+
+CREATE INDEX patient_lower_name_trgm_idx ON patient USING gin (lower(name) gin_trgm_ops)
\ No newline at end of file
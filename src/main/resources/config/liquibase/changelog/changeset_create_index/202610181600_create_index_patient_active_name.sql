@@ -0,0 +1,3 @@
+CREATE INDEX patient_active_name_idx ON patient (name)
+    INCLUDE (id, birth_date, last_temperature, last_pulse, is_discharged, version)
+    WHERE is_discharged = false
\ No newline at end of file
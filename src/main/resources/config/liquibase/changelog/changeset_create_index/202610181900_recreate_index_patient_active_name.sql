@@ -0,0 +1,5 @@
+DROP INDEX patient_active_name_idx;
+
+CREATE INDEX patient_active_name_idx ON patient (name)
+    INCLUDE (id, birth_date)
+    WHERE is_discharged = false
\ No newline at end of file
@@ -0,0 +1,10 @@
+CREATE TABLE patient_vitals
+(
+    id                  bigserial       PRIMARY KEY,
+    patient_id          UUID            NOT NULL,
+    temperature         numeric(19, 1),
+    pulse               integer,
+    measured_at         timestamptz     NOT NULL
+);
+
+CREATE INDEX patient_vitals_patient_id_measured_at_idx ON patient_vitals (patient_id, measured_at)
\ No newline at end of file
@@ -0,0 +1,17 @@
+CREATE TABLE patient_archive
+(
+    id                  UUID            NOT NULL,
+    name                varchar(30)     NOT NULL,
+    birth_date          date            NOT NULL,
+    last_temperature    numeric(19, 1),
+    last_pulse          integer,
+    version             bigint          NOT NULL,
+    discharged_at       timestamptz     NOT NULL,
+    archived_at         timestamptz     NOT NULL DEFAULT now(),
+
+    PRIMARY KEY (id, discharged_at)
+) PARTITION BY RANGE (discharged_at);
+
+CREATE INDEX patient_archive_lower_name_pattern_idx ON patient_archive (lower(name) text_pattern_ops);
+
+CREATE INDEX patient_archive_lower_name_trgm_idx ON patient_archive USING gin (lower(name) gin_trgm_ops)
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.example.test;
+
+import com.example.test.monitoring.StatementScope;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Asserts how many JDBC statements an action may execute, including statements of listeners run after commit.
+ */
+public final class StatementCountAssertions {
+
+    private StatementCountAssertions() {
+    }
+
+    public static <T> T assertMaxStatements(int maxStatements, ThrowingSupplier<T> action) {
+        try (StatementScope scope = StatementScope.open()) {
+            T result;
+            try {
+                result = action.get();
+            } catch (Throwable throwable) {
+                return fail(throwable);
+            }
+            assertStatements(maxStatements, scope);
+            return result;
+        }
+    }
+
+    public static void assertMaxStatements(int maxStatements, Executable action) {
+        assertMaxStatements(maxStatements, () -> {
+            action.execute();
+            return null;
+        });
+    }
+
+    private static void assertStatements(int maxStatements, StatementScope scope) {
+        assertTrue(scope.statements() <= maxStatements,
+                () -> "Expected at most " + maxStatements + " statements, but executed " + scope.statements());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.test;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records SQL prepared by Hibernate, enable it with
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector property.
+ */
+public class StatementRecorder implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static String last() {
+        return STATEMENTS.get(STATEMENTS.size() - 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.example.test.admission;
+
+import com.example.test.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Census bulkhead admits no requests at all, so every census request is shed.
+ * Indexed properties replace the whole list of application.properties, so both bulkheads are set.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "patient.admission.enabled=true",
+        "patient.admission.retry-after=1500ms",
+        "patient.admission.bulkheads[0].name=writes",
+        "patient.admission.bulkheads[0].paths=/api/v1/patient/add",
+        "patient.admission.bulkheads[1].name=census",
+        "patient.admission.bulkheads[1].paths=/api/v1/patient/not-discharged",
+        "patient.admission.bulkheads[1].max-concurrent=0",
+        "patient.admission.bulkheads[1].max-queued=0"
+})
+public class AdmissionControlTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+    }
+
+    @Test
+    void getNotDischargedPatients_censusIsShed_serviceUnavailableWithRetryAfter() throws Exception {
+        mockMvc.perform(get("/api/v1/patient/not-discharged"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.message").value(AdmissionInterceptor.OVERLOADED));
+    }
+
+    @Test
+    void addNewPatient_censusIsShed_admitWrites() throws Exception {
+        mockMvc.perform(patch("/api/v1/patient/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Admitted Patient", "birthDate": "1980-01-01"}
+                                """))
+                .andExpect(status().isOk());
+    }
+}
\ No newline at end of file
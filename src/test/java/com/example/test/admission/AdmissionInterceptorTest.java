@@ -0,0 +1,59 @@
+package com.example.test.admission;
+
+import com.example.test.config.AdmissionProperties;
+import com.example.test.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdmissionInterceptorTest {
+
+    private final AdmissionQueue admissionQueue = queue();
+    private final AdmissionQueue.Bulkhead census = admissionQueue.getBulkheads().get("census");
+    private final AdmissionInterceptor interceptor =
+            new AdmissionInterceptor(admissionQueue, census, Duration.ofSeconds(2));
+
+    @Test
+    void preHandle_bulkheadIsFull_throwServiceOverloadedException() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/patient/not-discharged");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+        var exception = assertThrows(ServiceOverloadedException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), response, new Object()));
+
+        assertEquals(AdmissionInterceptor.OVERLOADED, exception.getMessage());
+        assertEquals(Duration.ofSeconds(2), exception.getRetryAfter());
+    }
+
+    @Test
+    void afterCompletion_admittedRequest_releaseOnce() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/patient/not-discharged");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertEquals(0, census.getInFlight());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, new Object()));
+    }
+
+    private static AdmissionQueue queue() {
+        AdmissionProperties.Bulkhead census = new AdmissionProperties.Bulkhead();
+        census.setName("census");
+        census.setMaxConcurrent(1);
+        census.setMaxQueued(0);
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setBulkheads(List.of(census));
+        return new AdmissionQueue(properties, new SimpleMeterRegistry());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.example.test.admission;
+
+import com.example.test.config.AdmissionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdmissionQueueTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService clients = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void cleanUp() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    void acquire_bulkheadIsFull_queueUntilReleased() throws Exception {
+        AdmissionQueue queue = queue(10, bulkhead("writes", 10, 1, 1, Duration.ofMinutes(1)));
+        AdmissionQueue.Bulkhead writes = queue.getBulkheads().get("writes");
+
+        assertTrue(queue.acquire(writes));
+        Future<Boolean> queued = clients.submit(() -> queue.acquire(writes));
+        awaitQueued(writes, 1);
+        assertFalse(queue.acquire(writes));
+        assertEquals(1, shed("writes", AdmissionQueue.QUEUE_FULL));
+
+        queue.release(writes);
+
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1, writes.getInFlight());
+        assertEquals(0, writes.getQueued());
+    }
+
+    @Test
+    void acquire_waitedLongerThanMaxWait_shed() throws Exception {
+        AdmissionQueue queue = queue(10, bulkhead("census", 0, 1, 10, Duration.ofMillis(50)));
+        AdmissionQueue.Bulkhead census = queue.getBulkheads().get("census");
+
+        assertTrue(queue.acquire(census));
+
+        assertFalse(queue.acquire(census));
+        assertEquals(1, shed("census", AdmissionQueue.TIMEOUT));
+        assertEquals(0, census.getQueued());
+    }
+
+    @Test
+    void release_queueIsFull_admitHigherPriorityFirst() throws Exception {
+        AdmissionQueue queue = queue(1,
+                bulkhead("writes", 10, 10, 10, Duration.ofMinutes(1)),
+                bulkhead("census", 0, 10, 10, Duration.ofMinutes(1)));
+        AdmissionQueue.Bulkhead writes = queue.getBulkheads().get("writes");
+        AdmissionQueue.Bulkhead census = queue.getBulkheads().get("census");
+
+        assertTrue(queue.acquire(census));
+        Future<Boolean> queuedCensus = clients.submit(() -> queue.acquire(census));
+        awaitQueued(census, 1);
+        Future<Boolean> queuedWrite = clients.submit(() -> queue.acquire(writes));
+        awaitQueued(writes, 1);
+
+        queue.release(census);
+
+        assertTrue(queuedWrite.get(5, TimeUnit.SECONDS));
+        assertEquals(1, census.getQueued());
+
+        queue.release(writes);
+
+        assertTrue(queuedCensus.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void acquire_higherPriorityIsWaiting_shedLowerPriority() throws Exception {
+        AdmissionQueue queue = queue(1,
+                bulkhead("writes", 10, 10, 10, Duration.ofMinutes(1)),
+                bulkhead("census", 0, 10, 10, Duration.ofMinutes(1)));
+        AdmissionQueue.Bulkhead writes = queue.getBulkheads().get("writes");
+        AdmissionQueue.Bulkhead census = queue.getBulkheads().get("census");
+
+        assertTrue(queue.acquire(writes));
+        Future<Boolean> queuedWrite = clients.submit(() -> queue.acquire(writes));
+        awaitQueued(writes, 1);
+
+        assertFalse(queue.acquire(census));
+        assertEquals(1, shed("census", AdmissionQueue.PRIORITY));
+
+        queue.release(writes);
+        assertTrue(queuedWrite.get(5, TimeUnit.SECONDS));
+    }
+
+    private AdmissionQueue queue(int maxConcurrent, AdmissionProperties.Bulkhead... bulkheads) {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setMaxConcurrent(maxConcurrent);
+        properties.setBulkheads(List.of(bulkheads));
+        return new AdmissionQueue(properties, meterRegistry);
+    }
+
+    private static AdmissionProperties.Bulkhead bulkhead(String name, int priority, int maxConcurrent, int maxQueued,
+                                                         Duration maxWait) {
+        AdmissionProperties.Bulkhead bulkhead = new AdmissionProperties.Bulkhead();
+        bulkhead.setName(name);
+        bulkhead.setPriority(priority);
+        bulkhead.setMaxConcurrent(maxConcurrent);
+        bulkhead.setMaxQueued(maxQueued);
+        bulkhead.setMaxWait(maxWait);
+        return bulkhead;
+    }
+
+    private double shed(String bulkhead, String reason) {
+        return meterRegistry.counter(AdmissionQueue.SHED_METRIC, "bulkhead", bulkhead, "reason", reason).count();
+    }
+
+    private static void awaitQueued(AdmissionQueue.Bulkhead bulkhead, int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.getQueued() < queued && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(queued, bulkhead.getQueued());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.example.test.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AdmissionConfigTest {
+
+    @Test
+    void admissionQueue_maxConcurrentOverPoolSize_throwException() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setMaxConcurrent(20);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "10");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdmissionConfig(properties, null, environment).admissionQueue());
+    }
+
+    @Test
+    void admissionQueue_bulkheadMaxConcurrentOverDefaultPoolSize_throwException() {
+        AdmissionProperties.Bulkhead bulkhead = new AdmissionProperties.Bulkhead();
+        bulkhead.setName("writes");
+        bulkhead.setMaxConcurrent(16);
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getBulkheads().add(bulkhead);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdmissionConfig(properties, null, new MockEnvironment()).admissionQueue());
+    }
+}
\ No newline at end of file
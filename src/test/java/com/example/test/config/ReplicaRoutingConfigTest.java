@@ -0,0 +1,31 @@
+package com.example.test.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ReplicaRoutingConfigTest {
+
+    @Test
+    void replicaRouter_readYourWritesWindowShorterThanReplicaStaleness_throwException() {
+        ReplicaRoutingProperties properties = new ReplicaRoutingProperties();
+        properties.setMaxLag(Duration.ofSeconds(10));
+        properties.setHealthCheckInterval(Duration.ofSeconds(5));
+        properties.setReadYourWritesWindow(Duration.ofSeconds(10));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReplicaRoutingConfig().replicaRouter(null, properties, new MockEnvironment(), null));
+    }
+
+    @Test
+    void replicaRouter_secondLevelCacheIsEnabled_throwException() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.jpa.properties.hibernate.cache.use_second_level_cache", "true");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReplicaRoutingConfig().replicaRouter(null, new ReplicaRoutingProperties(), environment, null));
+    }
+}
\ No newline at end of file
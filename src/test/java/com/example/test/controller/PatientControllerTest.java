@@ -1,8 +1,22 @@
 package com.example.test.controller;
 
+import com.example.test.controller.dto.PatientBatchDischargeDto;
+import com.example.test.controller.dto.PatientBatchResultDto;
+import com.example.test.controller.dto.PatientBatchStatus;
 import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.PatientImportConflictDto;
+import com.example.test.controller.dto.PatientImportResultDto;
+import com.example.test.controller.dto.PatientPageDto;
+import com.example.test.controller.dto.PatientVitalsDto;
+import com.example.test.controller.dto.WardStatisticsDto;
+import com.example.test.exception.IncorrectRequestParameterException;
 import com.example.test.exception.NotUniquePatientNameException;
+import com.example.test.exception.PatientVersionMismatchException;
+import com.example.test.exception.VitalsBufferIsFullException;
 import com.example.test.exception.PatientExceptionHandler;
+import com.example.test.service.cache.PatientsSnapshot;
+import com.example.test.service.feed.PatientFeedSubscriber;
+import com.example.test.service.feed.PatientFeedSubscription;
 import com.example.test.service.implementation.PatientServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -11,22 +25,42 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
+import static com.example.test.controller.PatientController.INCORRECT_BIRTH_DATE_RANGE;
+import static com.example.test.service.implementation.PatientServiceImpl.INCORRECT_PAGE_LIMIT;
 import static com.example.test.service.implementation.PatientServiceImpl.NOT_UNIQUE_NAME;
 import static com.example.test.service.implementation.PatientServiceImpl.NO_PATIENT_BY_ID_OR_IS_DISCHARGED;
+import static com.example.test.service.implementation.PatientServiceImpl.PATIENT_VERSION_MISMATCH;
+import static com.example.test.service.implementation.PatientVitalsBuffer.VITALS_BUFFER_IS_FULL;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,13 +72,13 @@ public class PatientControllerTest {
     private PatientServiceImpl patientService;
 
     private MockMvc mockMvc;
-    private ObjectMapper objectMapper;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
     private PatientDto patientDto;
     private String patientDtoString;
 
     @BeforeEach
     void init() throws Exception{
-        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
         mockMvc = MockMvcBuilders
                 .standaloneSetup(patientController)
                 .setControllerAdvice(PatientExceptionHandler.class)
@@ -91,11 +125,61 @@ public class PatientControllerTest {
         verify(patientService, times(1)).addNewPatient(patientDto);
     }
 
+    @Test
+    void addNewPatients_correctData_returnResultForEveryPatientAndStatusOk() throws Exception {
+        List<PatientBatchResultDto> results = List.of(
+                PatientBatchResultDto.builder()
+                        .name(patientDto.getName())
+                        .status(PatientBatchStatus.CREATED)
+                        .patient(patientDto)
+                        .build(),
+                PatientBatchResultDto.builder()
+                        .name(patientDto.getName())
+                        .status(PatientBatchStatus.NOT_UNIQUE_NAME)
+                        .build());
+
+        when(patientService.addNewPatients(List.of(patientDto, patientDto))).thenReturn(results);
+
+        mockMvc.perform(patch("/api/v1/patient/add/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + patientDtoString + "," + patientDtoString + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].patient.name").value(patientDto.getName()))
+                .andExpect(jsonPath("$[1].status").value("NOT_UNIQUE_NAME"));
+
+        verify(patientService, times(1)).addNewPatients(List.of(patientDto, patientDto));
+    }
+
+    @Test
+    void importPatients_csvFile_returnImportResultAndStatusOk() throws Exception {
+        PatientImportResultDto result = PatientImportResultDto.builder()
+                .rows(2)
+                .imported(1)
+                .conflicts(1)
+                .conflictSample(List.of(new PatientImportConflictDto(2, patientDto.getName())))
+                .build();
+
+        when(patientService.importPatients(any())).thenReturn(result);
+
+        mockMvc.perform(patch("/api/v1/patient/import")
+                        .contentType(PatientController.TEXT_CSV_VALUE)
+                        .content("name,birth_date,last_temperature,last_pulse,is_discharged\n"
+                                + "Test name,2024-03-05,36.6,90,false\n"
+                                + "Test name,2024-03-05,36.6,90,false\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.conflictSample[0].row").value(2))
+                .andExpect(jsonPath("$.conflictSample[0].name").value(patientDto.getName()));
+
+        verify(patientService, times(1)).importPatients(any());
+    }
+
     @Test
     void changeInformationAboutPatient_correctData_returnUpdatedPatientAndStatusOk() throws Exception {
         UUID id = UUID.randomUUID();
 
-        when(patientService.changeInformationAboutPatient(id, patientDto)).thenReturn(patientDto);
+        when(patientService.changeInformationAboutPatient(id, patientDto, null)).thenReturn(patientDto);
 
         mockMvc.perform(patch("/api/v1/patient/{id}/update", String.valueOf(id))
                         .contentType(MediaType.APPLICATION_JSON)
@@ -104,14 +188,14 @@ public class PatientControllerTest {
                 .andExpect(jsonPath("$.name").value(patientDto.getName()))
                 .andExpect(jsonPath("$.lastTemperature").value(patientDto.getLastTemperature()));
 
-        verify(patientService, times(1)).changeInformationAboutPatient(id, patientDto);
+        verify(patientService, times(1)).changeInformationAboutPatient(id, patientDto, null);
     }
 
     @Test
     void changeInformationAboutPatient_notUniqueName_returnBadRequest() throws Exception {
         UUID id = UUID.randomUUID();
 
-        when(patientService.changeInformationAboutPatient(id, patientDto))
+        when(patientService.changeInformationAboutPatient(id, patientDto, null))
                 .thenThrow(new NotUniquePatientNameException(NOT_UNIQUE_NAME));
 
         mockMvc.perform(patch("/api/v1/patient/{id}/update", String.valueOf(id))
@@ -121,14 +205,14 @@ public class PatientControllerTest {
                 .andExpect(jsonPath("$.status", is(400)))
                 .andExpect(jsonPath("$.message", is(NOT_UNIQUE_NAME)));
 
-        verify(patientService, times(1)).changeInformationAboutPatient(id, patientDto);
+        verify(patientService, times(1)).changeInformationAboutPatient(id, patientDto, null);
     }
 
     @Test
     void changeInformationAboutPatient_notCorrectIdOrPatientDischarged_returnBadRequest() throws Exception {
         UUID id = UUID.randomUUID();
 
-        when(patientService.changeInformationAboutPatient(id, patientDto))
+        when(patientService.changeInformationAboutPatient(id, patientDto, null))
                 .thenThrow(new NotUniquePatientNameException(NO_PATIENT_BY_ID_OR_IS_DISCHARGED));
 
         mockMvc.perform(patch("/api/v1/patient/{id}/update", String.valueOf(id))
@@ -138,28 +222,103 @@ public class PatientControllerTest {
                 .andExpect(jsonPath("$.status", is(400)))
                 .andExpect(jsonPath("$.message", is(NO_PATIENT_BY_ID_OR_IS_DISCHARGED)));
 
-        verify(patientService, times(1)).changeInformationAboutPatient(id, patientDto);
+        verify(patientService, times(1)).changeInformationAboutPatient(id, patientDto, null);
+    }
+
+    @Test
+    void changeInformationAboutPatient_ifMatchVersion_returnUpdatedPatientAndNewETag() throws Exception {
+        UUID id = UUID.randomUUID();
+        PatientDto updatedPatientDto = PatientDto.builder().name(patientDto.getName()).version(4).build();
+
+        when(patientService.changeInformationAboutPatient(id, patientDto, 3L)).thenReturn(updatedPatientDto);
+
+        mockMvc.perform(patch("/api/v1/patient/{id}/update", String.valueOf(id))
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(patientDtoString))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.name").value(patientDto.getName()));
+
+        verify(patientService, times(1)).changeInformationAboutPatient(id, patientDto, 3L);
+    }
+
+    @Test
+    void changeInformationAboutPatient_staleIfMatchVersion_returnPreconditionFailed() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        when(patientService.changeInformationAboutPatient(id, patientDto, 3L))
+                .thenThrow(new PatientVersionMismatchException(PATIENT_VERSION_MISMATCH));
+
+        mockMvc.perform(patch("/api/v1/patient/{id}/update", String.valueOf(id))
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(patientDtoString))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status", is(412)))
+                .andExpect(jsonPath("$.message", is(PATIENT_VERSION_MISMATCH)));
+
+        verify(patientService, times(1)).changeInformationAboutPatient(id, patientDto, 3L);
+    }
+
+    @Test
+    void changeInformationAboutPatient_incorrectIfMatch_returnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/v1/patient/{id}/update", String.valueOf(UUID.randomUUID()))
+                        .header(HttpHeaders.IF_MATCH, "\"abc\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(patientDtoString))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)));
+
+        verifyNoInteractions(patientService);
+    }
+
+    @Test
+    void getPatient_correctId_returnPatientWithETagAndStatusOk() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        when(patientService.getPatient(id)).thenReturn(patientDto);
+
+        mockMvc.perform(get("/api/v1/patient/{id}", String.valueOf(id)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + patientDto.getVersion() + "\""))
+                .andExpect(jsonPath("$.name").value(patientDto.getName()));
+    }
+
+    @Test
+    void getWardStatistics_returnStatisticsAndStatusOk() throws Exception {
+        when(patientService.getWardStatistics()).thenReturn(WardStatisticsDto.builder()
+                .activePatients(2)
+                .maxTemperature(38.5)
+                .pulseDistribution(Map.of("60-99", 2L))
+                .build());
+
+        mockMvc.perform(get("/api/v1/patient/statistics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.activePatients").value(2))
+                .andExpect(jsonPath("$.maxTemperature").value(38.5))
+                .andExpect(jsonPath("$.pulseDistribution['60-99']").value(2));
     }
 
     @Test
     void dischargePatient_correctData_returnDischargedPatientAndStatusOk() throws Exception {
         UUID id = UUID.randomUUID();
 
-        when(patientService.dischargePatient(id)).thenReturn(patientDto);
+        when(patientService.dischargePatient(id, null)).thenReturn(patientDto);
 
         mockMvc.perform(patch("/api/v1/patient/{id}/discharge", String.valueOf(id)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value(patientDto.getName()))
                 .andExpect(jsonPath("$.lastTemperature").value(patientDto.getLastTemperature()));
 
-        verify(patientService, times(1)).dischargePatient(id);
+        verify(patientService, times(1)).dischargePatient(id, null);
     }
 
     @Test
     void dischargePatient_notCorrectIdOrPatientDischarged_returnBadRequest() throws Exception {
         UUID id = UUID.randomUUID();
 
-        when(patientService.dischargePatient(id))
+        when(patientService.dischargePatient(id, null))
                 .thenThrow(new NotUniquePatientNameException(NO_PATIENT_BY_ID_OR_IS_DISCHARGED));
 
         mockMvc.perform(patch("/api/v1/patient/{id}/discharge", String.valueOf(id)))
@@ -167,32 +326,213 @@ public class PatientControllerTest {
                 .andExpect(jsonPath("$.status", is(400)))
                 .andExpect(jsonPath("$.message", is(NO_PATIENT_BY_ID_OR_IS_DISCHARGED)));
 
-        verify(patientService, times(1)).dischargePatient(id);
+        verify(patientService, times(1)).dischargePatient(id, null);
+    }
+
+    @Test
+    void dischargePatients_correctData_returnDischargedPatientsAndStatusOk() throws Exception {
+        UUID dischargedId = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        PatientBatchDischargeDto result = PatientBatchDischargeDto.builder()
+                .discharged(List.of(patientDto))
+                .notDischargedIds(List.of(unknownId))
+                .build();
+
+        when(patientService.dischargePatients(List.of(dischargedId, unknownId))).thenReturn(result);
+
+        mockMvc.perform(patch("/api/v1/patient/discharge/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(dischargedId, unknownId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.discharged[0].name").value(patientDto.getName()))
+                .andExpect(jsonPath("$.notDischargedIds[0]").value(unknownId.toString()));
+
+        verify(patientService, times(1)).dischargePatients(List.of(dischargedId, unknownId));
+    }
+
+    @Test
+    void addVitals_correctData_returnStatusAccepted() throws Exception {
+        UUID id = UUID.randomUUID();
+        PatientVitalsDto patientVitalsDto = PatientVitalsDto.builder().temperature(37.2).pulse(75).build();
+
+        mockMvc.perform(patch("/api/v1/patient/{id}/vitals", String.valueOf(id))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patientVitalsDto)))
+                .andExpect(status().isAccepted());
+
+        verify(patientService, times(1)).addVitals(id, patientVitalsDto);
+    }
+
+    @Test
+    void addVitals_bufferIsFull_returnServiceUnavailable() throws Exception {
+        UUID id = UUID.randomUUID();
+        PatientVitalsDto patientVitalsDto = PatientVitalsDto.builder().temperature(37.2).pulse(75).build();
+
+        doThrow(new VitalsBufferIsFullException(VITALS_BUFFER_IS_FULL))
+                .when(patientService).addVitals(id, patientVitalsDto);
+
+        mockMvc.perform(patch("/api/v1/patient/{id}/vitals", String.valueOf(id))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patientVitalsDto)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status", is(503)))
+                .andExpect(jsonPath("$.message", is(VITALS_BUFFER_IS_FULL)));
     }
 
     @Test
     void getAllNotDischargedPatients_thereAreNoDischargedPatients_returnStatusOkAndListOfPatients() throws Exception {
-        List<PatientDto> patientList = List.of(patientDto);
+        PatientsSnapshot snapshot = new PatientsSnapshot(objectMapper.writeValueAsBytes(List.of(patientDto)), "\"1\"");
 
-        when(patientService.getAllNotDischargedPatients()).thenReturn(patientList);
+        when(patientService.getNotDischargedPatientsSnapshot()).thenReturn(snapshot);
 
         mockMvc.perform(get("/api/v1/patient/all-not-discharged"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
                 .andExpect(jsonPath("$[0].name").value(patientDto.getName()))
                 .andExpect(jsonPath("$[0].lastTemperature").value(patientDto.getLastTemperature()));
 
-        verify(patientService, times(1)).getAllNotDischargedPatients();
+        verify(patientService, times(1)).getNotDischargedPatientsSnapshot();
     }
 
     @Test
     void getAllNotDischargedPatients_thereAreNoPatients_returnStatusOkAndEmptyList() throws Exception {
-        List<PatientDto> patientList = List.of();
+        PatientsSnapshot snapshot = new PatientsSnapshot(objectMapper.writeValueAsBytes(List.of()), "\"1\"");
 
-        when(patientService.getAllNotDischargedPatients()).thenReturn(patientList);
+        when(patientService.getNotDischargedPatientsSnapshot()).thenReturn(snapshot);
 
         mockMvc.perform(get("/api/v1/patient/all-not-discharged"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+
+        verify(patientService, times(1)).getNotDischargedPatientsSnapshot();
+    }
+
+    @Test
+    void getAllNotDischargedPatients_listHasNotChanged_returnStatusNotModified() throws Exception {
+        PatientsSnapshot snapshot = new PatientsSnapshot(objectMapper.writeValueAsBytes(List.of(patientDto)), "\"1\"");
+
+        when(patientService.getNotDischargedPatientsSnapshot()).thenReturn(snapshot);
+
+        mockMvc.perform(get("/api/v1/patient/all-not-discharged")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        verify(patientService, times(1)).getNotDischargedPatientsSnapshot();
+    }
+
+    @Test
+    void exportPatients_withFilters_streamEveryPatientOnSeparateLine() throws Exception {
+        LocalDate birthDateFrom = LocalDate.of(2020, 1, 1);
+        doAnswer(invocation -> {
+            Consumer<PatientDto> consumer = invocation.getArgument(3);
+            consumer.accept(patientDto);
+            consumer.accept(patientDto);
+            return null;
+        }).when(patientService).exportPatients(eq(true), eq(birthDateFrom), isNull(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/patient/export")
+                        .param("isDischarged", "true")
+                        .param("birthDateFrom", "2020-01-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, PatientController.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(patientDtoString + "\n" + patientDtoString + "\n"));
+    }
+
+    @Test
+    void exportPatients_clientAcceptsGzip_streamCompressedPatients() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<PatientDto> consumer = invocation.getArgument(3);
+            consumer.accept(patientDto);
+            return null;
+        }).when(patientService).exportPatients(isNull(), isNull(), isNull(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/patient/export")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(patientDtoString + "\n", new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void exportPatients_birthDateRangeIsNotCorrect_returnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/patient/export")
+                        .param("birthDateFrom", "2020-01-01")
+                        .param("birthDateTo", "2019-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is(INCORRECT_BIRTH_DATE_RANGE)));
+
+        verifyNoInteractions(patientService);
+    }
+
+    @Test
+    void subscribeToPatientChanges_newSubscriber_startEventStream() throws Exception {
+        PatientFeedSubscription subscription = mock(PatientFeedSubscription.class);
+
+        when(patientService.subscribeToPatientChanges(any(PatientFeedSubscriber.class))).thenReturn(subscription);
+
+        mockMvc.perform(get("/api/v1/patient/feed")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(patientService, times(1)).subscribeToPatientChanges(any(PatientFeedSubscriber.class));
+    }
+
+    @Test
+    void searchPatients_correctData_returnStatusOkAndFoundPatients() throws Exception {
+        when(patientService.searchPatients("test", true, 20)).thenReturn(List.of(patientDto));
+
+        mockMvc.perform(get("/api/v1/patient/search")
+                        .param("query", "test")
+                        .param("activeOnly", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value(patientDto.getName()));
+
+        verify(patientService, times(1)).searchPatients("test", true, 20);
+    }
+
+    @Test
+    void getNotDischargedPatientsPage_correctData_returnStatusOkAndPage() throws Exception {
+        PatientPageDto page = PatientPageDto.builder()
+                .patients(List.of(patientDto))
+                .nextCursor(patientDto.getName())
+                .build();
+
+        when(patientService.getNotDischargedPatientsPage("A name", 1)).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/patient/not-discharged")
+                        .param("after", "A name")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patients[0].name").value(patientDto.getName()))
+                .andExpect(jsonPath("$.nextCursor").value(patientDto.getName()));
+
+        verify(patientService, times(1)).getNotDischargedPatientsPage("A name", 1);
+    }
+
+    @Test
+    void getNotDischargedPatientsPage_limitIsNotCorrect_returnBadRequest() throws Exception {
+        when(patientService.getNotDischargedPatientsPage(null, 0))
+                .thenThrow(new IncorrectRequestParameterException(INCORRECT_PAGE_LIMIT));
+
+        mockMvc.perform(get("/api/v1/patient/not-discharged")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)))
+                .andExpect(jsonPath("$.message", is(INCORRECT_PAGE_LIMIT)));
 
-        verify(patientService, times(1)).getAllNotDischargedPatients();
+        verify(patientService, times(1)).getNotDischargedPatientsPage(null, 0);
     }
 }
\ No newline at end of file
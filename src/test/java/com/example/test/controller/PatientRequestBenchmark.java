@@ -0,0 +1,109 @@
+package com.example.test.controller;
+
+import com.example.test.PostgresIntegrationTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures throughput and latency of patient lookups, every one blocking on JDBC,
+ * with many more concurrent clients than request threads and database connections.
+ * Subclasses choose the request threads.
+ */
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public abstract class PatientRequestBenchmark extends PostgresIntegrationTest {
+
+    private static final int PATIENT_COUNT = 10_000;
+    private static final int CLIENT_COUNT = 400;
+    private static final int REQUESTS_PER_CLIENT = 25;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<UUID> patientIds;
+
+    @BeforeAll
+    void init() {
+        jdbcTemplate.update("""
+                INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged)
+                SELECT gen_random_uuid(), 'Patient ' || i, DATE '1980-01-01', 36.6, 80, false
+                FROM generate_series(1, ?) AS i
+                """, PATIENT_COUNT);
+        patientIds = jdbcTemplate.queryForList("SELECT id FROM patient", UUID.class);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+    }
+
+    @Test
+    void getPatient_manyConcurrentClients_answerEveryRequest() throws Exception {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        long[] latencies = new long[CLIENT_COUNT * REQUESTS_PER_CLIENT];
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger unanswered = new AtomicInteger();
+        AtomicInteger next = new AtomicInteger();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENT_COUNT);
+        long start = System.nanoTime();
+        try {
+            CompletableFuture<?>[] runs = new CompletableFuture<?>[CLIENT_COUNT];
+            for (int client = 0; client < CLIENT_COUNT; client++) {
+                runs[client] = CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        UUID id = patientIds.get(ThreadLocalRandom.current().nextInt(patientIds.size()));
+                        HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/api/v1/patient/" + id)).build();
+                        long requestStart = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                failed.incrementAndGet();
+                            }
+                        } catch (Exception exception) {
+                            unanswered.incrementAndGet();
+                        }
+                        latencies[next.getAndIncrement()] = System.nanoTime() - requestStart;
+                    }
+                }, clients);
+            }
+            CompletableFuture.allOf(runs).get();
+        } finally {
+            clients.shutdown();
+        }
+        long nanos = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        log.debug("{}: {} requests/s, p50 {} us, p99 {} us, {} failed", getClass().getSimpleName(),
+                Math.round(latencies.length * 1e9 / nanos), latencies[latencies.length / 2] / 1000,
+                latencies[(int) (latencies.length * 0.99)] / 1000, failed.get());
+        // Requests waiting for a connection longer than the pool timeout fail, so the count depends on the machine
+        assertEquals(0, unanswered.get());
+    }
+}
\ No newline at end of file
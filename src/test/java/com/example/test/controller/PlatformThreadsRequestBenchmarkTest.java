@@ -0,0 +1,7 @@
+package com.example.test.controller;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+public class PlatformThreadsRequestBenchmarkTest extends PatientRequestBenchmark {
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.example.test.controller;
+
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.exception.NoPatientWithSuchIdException;
+import com.example.test.exception.NotUniquePatientNameException;
+import com.example.test.exception.PatientExceptionHandler;
+import com.example.test.service.ReactivePatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static com.example.test.controller.PatientController.APPLICATION_NDJSON_VALUE;
+import static com.example.test.service.implementation.PatientServiceImpl.NOT_UNIQUE_NAME;
+import static com.example.test.service.implementation.PatientServiceImpl.NO_PATIENT_BY_ID_OR_IS_DISCHARGED;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactivePatientControllerTest {
+
+    @InjectMocks
+    private ReactivePatientController patientController;
+    @Mock
+    private ReactivePatientService patientService;
+
+    private WebTestClient webTestClient;
+    private PatientDto patientDto;
+
+    @BeforeEach
+    void init() {
+        webTestClient = WebTestClient.bindToController(patientController)
+                .controllerAdvice(new PatientExceptionHandler())
+                .build();
+
+        patientDto = PatientDto.builder()
+                .name("Test name")
+                .birthDate(LocalDate.of(2024, 3, 5))
+                .lastPulse(90)
+                .lastTemperature(36.6)
+                .build();
+    }
+
+    @Test
+    void addNewPatient_correctData_returnAddedPatientWithETag() {
+        when(patientService.addNewPatient(patientDto)).thenReturn(Mono.just(patientDto));
+
+        webTestClient.patch().uri("/api/v1/patient/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(patientDto)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo(patientDto.getName());
+    }
+
+    @Test
+    void addNewPatient_nameIsNotUnique_returnBadRequest() {
+        when(patientService.addNewPatient(patientDto))
+                .thenReturn(Mono.error(new NotUniquePatientNameException(NOT_UNIQUE_NAME)));
+
+        webTestClient.patch().uri("/api/v1/patient/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(patientDto)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo(NOT_UNIQUE_NAME);
+    }
+
+    @Test
+    void dischargePatient_notCorrectIdOrPatientDischarged_returnBadRequest() {
+        UUID id = UUID.randomUUID();
+
+        when(patientService.dischargePatient(id, 3L))
+                .thenReturn(Mono.error(new NoPatientWithSuchIdException(NO_PATIENT_BY_ID_OR_IS_DISCHARGED)));
+
+        webTestClient.patch().uri("/api/v1/patient/{id}/discharge", id)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo(NO_PATIENT_BY_ID_OR_IS_DISCHARGED);
+    }
+
+    @Test
+    void changeInformationAboutPatient_incorrectIfMatch_returnBadRequest() {
+        webTestClient.patch().uri("/api/v1/patient/{id}/update", UUID.randomUUID())
+                .header(HttpHeaders.IF_MATCH, "\"abc\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(patientDto)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(patientService);
+    }
+
+    @Test
+    void getAllNotDischargedPatients_acceptNdjson_streamOnePatientPerLine() {
+        PatientDto otherPatientDto = PatientDto.builder().name("Other name").build();
+
+        when(patientService.getAllNotDischargedPatients()).thenReturn(Flux.just(patientDto, otherPatientDto));
+
+        webTestClient.get().uri("/api/v1/patient/all-not-discharged")
+                .accept(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(PatientDto.class)
+                .hasSize(2);
+    }
+}
\ No newline at end of file
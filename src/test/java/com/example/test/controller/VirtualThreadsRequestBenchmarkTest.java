@@ -0,0 +1,10 @@
+package com.example.test.controller;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.context.TestPropertySource;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+public class VirtualThreadsRequestBenchmarkTest extends PatientRequestBenchmark {
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.example.test.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PrimaryWalHistoryTest {
+
+    private static final long MAX_LAG = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    void requiredLsn_historyShorterThanMaxLag_requireOldestSample() {
+        PrimaryWalHistory history = new PrimaryWalHistory(MAX_LAG);
+
+        assertEquals(-1, history.requiredLsn());
+        history.record(0, 100);
+        history.record(TimeUnit.SECONDS.toNanos(5), 200);
+
+        assertEquals(100, history.requiredLsn());
+    }
+
+    @Test
+    void requiredLsn_historyLongerThanMaxLag_requireNewestSampleOlderThanMaxLag() {
+        PrimaryWalHistory history = new PrimaryWalHistory(MAX_LAG);
+
+        for (int second = 0; second <= 30; second += 5) {
+            history.record(TimeUnit.SECONDS.toNanos(second), 100 + second);
+        }
+
+        assertEquals(120, history.requiredLsn());
+    }
+
+    @Test
+    void parseLsn_textOfPgLsn_comparableNumber() {
+        assertEquals(0x16_B374D848L, PrimaryWalHistory.parseLsn("16/B374D848"));
+        assertEquals(0, PrimaryWalHistory.parseLsn("0/0"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.example.test.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReadYourWritesFilterTest {
+
+    @Test
+    void doFilter_readAfterWriteOfSameClient_readFromPrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1));
+
+        assertFalse(readsFromPrimary(filter, request("GET", "client-1")));
+        assertTrue(readsFromPrimary(filter, request("PATCH", "client-1")));
+        assertTrue(readsFromPrimary(filter, request("GET", "client-1")));
+        assertFalse(readsFromPrimary(filter, request("GET", "client-2")));
+        assertFalse(PrimaryReadScope.isOpen());
+    }
+
+    @Test
+    void doFilter_noClientIdHeader_identifyClientByAddress() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1));
+        MockHttpServletRequest otherAddress = request("GET", null);
+        otherAddress.setRemoteAddr("10.0.0.2");
+
+        readsFromPrimary(filter, request("PATCH", null));
+
+        assertTrue(readsFromPrimary(filter, request("GET", null)));
+        assertFalse(readsFromPrimary(filter, otherAddress));
+    }
+
+    @Test
+    void doFilter_windowHasPassed_readFromReplica() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ZERO);
+
+        readsFromPrimary(filter, request("PATCH", "client-1"));
+
+        assertFalse(readsFromPrimary(filter, request("GET", "client-1")));
+    }
+
+    private boolean readsFromPrimary(ReadYourWritesFilter filter, HttpServletRequest request) throws Exception {
+        boolean[] primary = new boolean[1];
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> primary[0] = PrimaryReadScope.isOpen());
+        return primary[0];
+    }
+
+    private MockHttpServletRequest request(String method, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/patient/1");
+        request.setRemoteAddr("10.0.0.1");
+        if (clientId != null) {
+            request.addHeader(ReadYourWritesFilter.CLIENT_ID_HEADER, clientId);
+        }
+        return request;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.example.test.datasource;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.exception.NoPatientWithSuchIdException;
+import com.example.test.service.PatientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Replicas are two databases of a second PostgreSQL instance, which does not replicate the primary,
+ * so a patient inserted into the replicas only is visible to reads routed there. Third replica never accepts connections.
+ */
+public class ReplicaRoutingTest extends PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres REPLICA = startReplica();
+    private static final String SECOND_REPLICA_DATABASE = "replica2";
+    private static final String DEAD_REPLICA_URL = "jdbc:postgresql://127.0.0.1:1/postgres";
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private ReplicaRouter replicaRouter;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<JdbcTemplate> replicaJdbcTemplates = List.of(
+            new JdbcTemplate(REPLICA.getDatabase("postgres", "postgres")),
+            new JdbcTemplate(REPLICA.getDatabase("postgres", SECOND_REPLICA_DATABASE)));
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("patient.replicas.enabled", () -> "true");
+        registry.add("patient.replicas.datasources[0].url", () -> REPLICA.getJdbcUrl("postgres", "postgres"));
+        registry.add("patient.replicas.datasources[1].url",
+                () -> REPLICA.getJdbcUrl("postgres", SECOND_REPLICA_DATABASE));
+        registry.add("patient.replicas.datasources[2].url", () -> DEAD_REPLICA_URL);
+        registry.add("patient.replicas.health-check-interval", () -> "1h");
+        registry.add("patient.replicas.read-your-writes-window", () -> "2h");
+    }
+
+    @BeforeEach
+    void init() {
+        replicaRouter.checkReplicas();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+        replicaJdbcTemplates.forEach(replica -> replica.execute("TRUNCATE patient"));
+    }
+
+    @Test
+    void checkReplicas_replicaRefusesConnections_outOfRotation() {
+        assertEquals(List.of("replica-1", "replica-2"), replicaRouter.getHealthyReplicas());
+    }
+
+    @Test
+    void getPatient_healthyReplicas_readFromReplicasInTurn() {
+        UUID id = UUID.randomUUID();
+        replicaJdbcTemplates.forEach(replica -> replica.update("""
+                INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged)
+                VALUES (?, 'Replica Patient', DATE '1980-01-01', 36.6, 80, false)
+                """, id));
+        double firstReplicaReads = reads("replica-1");
+        double secondReplicaReads = reads("replica-2");
+        double primaryReads = reads(ReplicaRouter.PRIMARY);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("Replica Patient", patientService.getPatient(id).getName());
+        }
+
+        assertEquals(2, reads("replica-1") - firstReplicaReads);
+        assertEquals(2, reads("replica-2") - secondReplicaReads);
+        assertEquals(0, reads(ReplicaRouter.PRIMARY) - primaryReads);
+    }
+
+    @Test
+    void getPatient_primaryReadScope_readFromPrimary() {
+        PatientDto patient = patientService.addNewPatient(PatientDto.builder()
+                .name("Primary Patient")
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .build());
+
+        assertThrows(NoPatientWithSuchIdException.class, () -> patientService.getPatient(patient.getId()));
+        try (PrimaryReadScope scope = PrimaryReadScope.open()) {
+            assertEquals(patient, patientService.getPatient(patient.getId()));
+        }
+    }
+
+    private double reads(String target) {
+        return meterRegistry.counter(ReplicaRouter.READS_METRIC, "target", target).count();
+    }
+
+    private static EmbeddedPostgres startReplica() {
+        try {
+            EmbeddedPostgres replica = EmbeddedPostgres.start();
+            new JdbcTemplate(replica.getPostgresDatabase()).execute("CREATE DATABASE " + SECOND_REPLICA_DATABASE);
+            createSchema(replica.getPostgresDatabase());
+            createSchema(replica.getDatabase("postgres", SECOND_REPLICA_DATABASE));
+            return replica;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void createSchema(DataSource dataSource) {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:/config/liquibase/master.yml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        try {
+            liquibase.afterPropertiesSet();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not create replica schema", e);
+        }
+    }
+}
\ No newline at end of file
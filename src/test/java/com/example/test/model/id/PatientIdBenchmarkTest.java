@@ -0,0 +1,81 @@
+package com.example.test.model.id;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.model.entity.Patient;
+import com.example.test.repository.PatientJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares admission throughput and primary key index size of random and time-ordered ids.
+ */
+@Slf4j
+public class PatientIdBenchmarkTest extends PostgresIntegrationTest {
+
+    private static final int PATIENT_COUNT = 200_000;
+    private static final int ADMISSION_BATCH_SIZE = 10_000;
+
+    @Autowired
+    private PatientJdbcRepository patientJdbcRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+    }
+
+    @Test
+    void admitPatients_timeOrderedIds_smallerPrimaryKeyIndex() {
+        long randomIndexSize = admitPatients(new RandomPatientIdGenerator());
+        jdbcTemplate.execute("TRUNCATE patient");
+        long timeOrderedIndexSize = admitPatients(new TimeOrderedPatientIdGenerator());
+
+        assertTrue(timeOrderedIndexSize < randomIndexSize);
+    }
+
+    @Test
+    void uuidGenerateV7_returnTimeOrderedIds() {
+        List<UUID> ids = jdbcTemplate.queryForList("""
+                SELECT uuid_generate_v7() FROM generate_series(1, 10) ORDER BY 1
+                """, UUID.class);
+
+        assertTrue(ids.stream().allMatch(id -> id.version() == 7 && id.variant() == 2));
+        long timestamp = ids.get(0).getMostSignificantBits() >>> 16;
+        assertTrue(Math.abs(System.currentTimeMillis() - timestamp) < 60_000);
+    }
+
+    private long admitPatients(PatientIdGenerator generator) {
+        long start = System.nanoTime();
+        for (int batchStart = 0; batchStart < PATIENT_COUNT; batchStart += ADMISSION_BATCH_SIZE) {
+            List<Patient> patients = new ArrayList<>(ADMISSION_BATCH_SIZE);
+            for (int i = batchStart; i < batchStart + ADMISSION_BATCH_SIZE; i++) {
+                patients.add(Patient.builder()
+                        .id(generator.generate())
+                        .name("Patient " + i)
+                        .birthDate(LocalDate.of(1980, 1, 1))
+                        .build());
+            }
+            patientJdbcRepository.insertAllIfNameIsUnique(patients);
+        }
+        long nanos = System.nanoTime() - start;
+
+        Long indexSize = jdbcTemplate.queryForObject("SELECT pg_relation_size('patient_pkey')", Long.class);
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM patient", Integer.class);
+        log.debug("{}: {} admissions/s, primary key index {} kB", generator.getClass().getSimpleName(),
+                Math.round(PATIENT_COUNT * 1e9 / nanos), indexSize / 1024);
+        assertEquals(PATIENT_COUNT, count);
+        return indexSize;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.example.test.model.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimeOrderedPatientIdGeneratorTest {
+
+    private final TimeOrderedPatientIdGenerator generator = new TimeOrderedPatientIdGenerator();
+
+    @Test
+    void generate_setVersionAndVariant() {
+        UUID id = generator.generate();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void generate_startWithCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID id = generator.generate();
+        long after = System.currentTimeMillis();
+
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after);
+    }
+
+    @Test
+    void generate_manyIdsInOneMillisecond_returnIncreasingIds() {
+        UUID previous = generator.generate();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = generator.generate();
+
+            // UUID.compareTo compares signed longs, ids must be ordered as unsigned bytes like in PostgreSQL
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            previous = next;
+        }
+    }
+}
\ No newline at end of file
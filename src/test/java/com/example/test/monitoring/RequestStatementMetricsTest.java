@@ -0,0 +1,75 @@
+package com.example.test.monitoring;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.service.PatientService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Metrics exporters are disabled in tests by default
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class RequestStatementMetricsTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+    }
+
+    @Test
+    void getPatient_recordStatementsPerEndpoint() {
+        UUID patientId = patientService.addNewPatient(PatientDto.builder()
+                .name("Measured name")
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .build()).getId();
+
+        restTemplate.getForEntity("/api/v1/patient/" + patientId, PatientDto.class);
+        restTemplate.getForEntity("/api/v1/patient/" + patientId, PatientDto.class);
+
+        DistributionSummary statements = meterRegistry.get(RequestStatementMetricsFilter.STATEMENTS_METRIC)
+                .tag("method", "GET")
+                .tag("uri", "/api/v1/patient/{id}")
+                .summary();
+        assertEquals(2, statements.count());
+        assertEquals(2, statements.totalAmount());
+    }
+
+    @Test
+    void prometheus_exportRequestAndDatabaseMetrics() {
+        restTemplate.getForEntity("/api/v1/patient/not-discharged", String.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().contains("patient_request_statements_count"));
+        assertTrue(response.getBody().contains("patient_request_jdbc_seconds_bucket"));
+        assertTrue(response.getBody().contains("http_server_requests_seconds_bucket"));
+        assertTrue(response.getBody().contains("hikaricp_connections_acquire_seconds_bucket"));
+        assertTrue(response.getBody().contains("hibernate_entities_loads"));
+        assertTrue(response.getBody().contains("hibernate_flushes"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.example.test.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StatementScopeTest {
+
+    @Test
+    void record_nestedScopes_countInEveryOpenScope() {
+        try (StatementScope outer = StatementScope.open()) {
+            StatementScope.record(1_000);
+            try (StatementScope inner = StatementScope.open()) {
+                StatementScope.record(2_000);
+
+                assertEquals(1, inner.statements());
+                assertEquals(Duration.ofNanos(2_000), inner.jdbcTime());
+            }
+            StatementScope.record(3_000);
+
+            assertEquals(3, outer.statements());
+            assertEquals(Duration.ofNanos(6_000), outer.jdbcTime());
+        }
+    }
+
+    @Test
+    void record_noOpenScope_notCounted() {
+        StatementScope.record(1_000);
+
+        try (StatementScope scope = StatementScope.open()) {
+            assertEquals(0, scope.statements());
+        }
+    }
+}
\ No newline at end of file
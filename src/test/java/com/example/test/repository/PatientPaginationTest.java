@@ -0,0 +1,91 @@
+package com.example.test.repository;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientPageDto;
+import com.example.test.service.PatientService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PatientPaginationTest extends PostgresIntegrationTest {
+
+    private static final int PATIENT_COUNT = 200_000;
+    private static final int PAGE_LIMIT = 100;
+    private static final int MEASUREMENTS = 50;
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void init() {
+        jdbcTemplate.update("""
+                INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged)
+                SELECT gen_random_uuid(), 'Patient ' || lpad(i::text, 7, '0'), DATE '1990-01-01', 36.6, 80, i % 10 = 0
+                FROM generate_series(1, ?) AS i
+                """, PATIENT_COUNT);
+        jdbcTemplate.execute("ANALYZE patient");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+    }
+
+    @Test
+    void getNotDischargedPatientsPage_walkAllPages_returnEveryActivePatientOnce() {
+        int pages = 0;
+        int patients = 0;
+        String cursor = null;
+
+        do {
+            PatientPageDto page = patientService.getNotDischargedPatientsPage(cursor, 500);
+            patients += page.getPatients().size();
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(PATIENT_COUNT - PATIENT_COUNT / 10, patients);
+        assertEquals(360, pages);
+    }
+
+    @Test
+    void getNotDischargedPatientsPage_deepPage_costsTheSameAsFirstPage() {
+        String shallowCursor = "Patient 0000100";
+        String deepCursor = "Patient 0199000";
+
+        for (int i = 0; i < MEASUREMENTS; i++) {
+            patientService.getNotDischargedPatientsPage(shallowCursor, PAGE_LIMIT);
+            patientService.getNotDischargedPatientsPage(deepCursor, PAGE_LIMIT);
+        }
+
+        long shallowPage = medianNanos(shallowCursor);
+        long deepPage = medianNanos(deepCursor);
+
+        assertTrue(deepPage < shallowPage * 3,
+                "Deep page took " + deepPage + "ns, first pages took " + shallowPage + "ns");
+        assertNull(patientService.getNotDischargedPatientsPage("Patient 9999999", PAGE_LIMIT).getNextCursor());
+    }
+
+    private long medianNanos(String cursor) {
+        long[] timings = new long[MEASUREMENTS];
+
+        for (int i = 0; i < MEASUREMENTS; i++) {
+            long start = System.nanoTime();
+            patientService.getNotDischargedPatientsPage(cursor, PAGE_LIMIT);
+            timings[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(timings);
+        return timings[MEASUREMENTS / 2];
+    }
+}
\ No newline at end of file
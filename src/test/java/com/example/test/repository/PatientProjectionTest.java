@@ -0,0 +1,102 @@
+package com.example.test.repository;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.mapper.PatientMapper;
+import com.example.test.model.entity.Patient;
+import com.example.test.service.PatientService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+public class PatientProjectionTest extends PostgresIntegrationTest {
+
+    private static final int PATIENT_COUNT = 100_000;
+    private static final int MEASUREMENTS = 7;
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private PatientMapper patientMapper;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void init() {
+        jdbcTemplate.update("""
+                INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged)
+                SELECT gen_random_uuid(), 'Patient ' || lpad(i::text, 7, '0'), DATE '1990-01-01', 36.6, 80, false
+                FROM generate_series(1, ?) AS i
+                """, PATIENT_COUNT);
+        jdbcTemplate.execute("ANALYZE patient");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+    }
+
+    @Test
+    void getAllNotDischargedPatients_hundredThousandPatients_allocateLessThanEntityPath() {
+        assertEquals(loadThroughEntities(), patientService.getAllNotDischargedPatients());
+
+        long[] entityPath = measure(this::loadThroughEntities);
+        long[] projectionPath = measure(patientService::getAllNotDischargedPatients);
+
+        log.debug("Reading {} active patients: entities {} ms / {} MB, projection {} ms / {} MB",
+                PATIENT_COUNT, entityPath[0] / 1_000_000, entityPath[1] >> 20,
+                projectionPath[0] / 1_000_000, projectionPath[1] >> 20);
+        assertTrue(projectionPath[1] < entityPath[1]);
+    }
+
+    /**
+     * The previous read path: managed entities copied to DTOs by the mapper.
+     */
+    private List<PatientDto> loadThroughEntities() {
+        return new TransactionTemplate(transactionManager).execute(status -> entityManager
+                .createQuery("SELECT p FROM Patient p WHERE p.isDischarged = false ORDER BY p.name", Patient.class)
+                .getResultStream()
+                .map(patientMapper::toPatientDto)
+                .toList());
+    }
+
+    /**
+     * @return median nanoseconds and median bytes allocated by the current thread
+     */
+    private long[] measure(Supplier<List<PatientDto>> readPath) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] nanos = new long[MEASUREMENTS];
+        long[] bytes = new long[MEASUREMENTS];
+
+        for (int i = 0; i < MEASUREMENTS; i++) {
+            long startBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            assertEquals(PATIENT_COUNT, readPath.get().size());
+            nanos[i] = System.nanoTime() - start;
+            bytes[i] = threadMXBean.getCurrentThreadAllocatedBytes() - startBytes;
+        }
+
+        Arrays.sort(nanos);
+        Arrays.sort(bytes);
+        return new long[]{nanos[MEASUREMENTS / 2], bytes[MEASUREMENTS / 2]};
+    }
+}
\ No newline at end of file
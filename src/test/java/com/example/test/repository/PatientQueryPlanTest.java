@@ -0,0 +1,107 @@
+package com.example.test.repository;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.StatementRecorder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fails when queries of the active patients hot path are planned as sequential scans.
+ * Plans are checked for SQL generated by Hibernate, on a table where almost all patients are discharged.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.test.StatementRecorder")
+public class PatientQueryPlanTest extends PostgresIntegrationTest {
+
+    private static final int PATIENT_COUNT = 200_000;
+
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID activePatientId;
+
+    @BeforeAll
+    void init() {
+        jdbcTemplate.update("""
+                INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged)
+                SELECT gen_random_uuid(), 'Patient ' || lpad(i::text, 7, '0'), DATE '1990-01-01', 36.6, 80, i % 25 <> 0
+                FROM generate_series(1, ?) AS i
+                """, PATIENT_COUNT);
+        jdbcTemplate.execute("VACUUM ANALYZE patient");
+        activePatientId = jdbcTemplate.queryForObject(
+                "SELECT id FROM patient WHERE is_discharged = false LIMIT 1", UUID.class);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        StatementRecorder.clear();
+    }
+
+    @Test
+    void findNotDischargedPatients_useActiveNameIndex() {
+        patientRepository.findNotDischargedPatients();
+
+        assertActiveNameIndexScan(explain(StatementRecorder.last()));
+    }
+
+    @Test
+    void findNotDischargedPatientsWithLimit_useActiveNameIndex() {
+        patientRepository.findNotDischargedPatients(Limit.of(100));
+
+        assertActiveNameIndexScan(explain(StatementRecorder.last(), 0, 100));
+    }
+
+    @Test
+    void findNotDischargedPatientsWithNameAfter_useActiveNameIndex() {
+        patientRepository.findNotDischargedPatientsWithNameAfter("Patient 0150000", Limit.of(100));
+
+        assertActiveNameIndexScan(explain(StatementRecorder.last(), "Patient 0150000", 0, 100));
+    }
+
+    @Test
+    void findNotDischargedPatientIds_readActiveNameIndexOnly() {
+        patientRepository.findNotDischargedPatientIds();
+
+        String plan = explain(StatementRecorder.last());
+        assertFalse(plan.contains("Sort"), plan);
+        assertTrue(plan.contains("Index Only Scan using patient_active_name_idx"), plan);
+    }
+
+    @Test
+    void existsByIdAndIsDischargedIsFalse_doNotScanTable() {
+        patientRepository.existsByIdAndIsDischargedIsFalse(activePatientId);
+
+        String plan = explain(StatementRecorder.last(), activePatientId, 1);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    private static void assertActiveNameIndexScan(String plan) {
+        assertFalse(plan.contains("Seq Scan"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+        assertTrue(plan.contains("Index Scan using patient_active_name_idx"), plan);
+    }
+
+    private String explain(String sql, Object... parameters) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters));
+    }
+}
\ No newline at end of file
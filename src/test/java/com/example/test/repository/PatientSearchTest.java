@@ -0,0 +1,92 @@
+package com.example.test.repository;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.service.PatientService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PatientSearchTest extends PostgresIntegrationTest {
+
+    private static final int PATIENT_COUNT = 1_000_000;
+    private static final int MEASUREMENTS = 50;
+    private static final long MAX_MEDIAN_NANOS = 20_000_000;
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void init() {
+        jdbcTemplate.update("""
+                INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged)
+                SELECT gen_random_uuid(),
+                       initcap(substr(md5(i::text), 1, 8)) || ' ' || initcap(substr(md5((-i)::text), 1, 10)),
+                       DATE '1990-01-01', 36.6, 80, i % 10 = 0
+                FROM generate_series(1, ?) AS i
+                ON CONFLICT (name) DO NOTHING
+                """, PATIENT_COUNT);
+        jdbcTemplate.update("""
+                INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged)
+                VALUES (gen_random_uuid(), 'Johnathan Smithson', DATE '1990-01-01', 36.6, 80, false),
+                       (gen_random_uuid(), 'Johnny Smith', DATE '1990-01-01', 36.6, 80, true),
+                       (gen_random_uuid(), 'Maria 100%_sure', DATE '1990-01-01', 36.6, 80, false)
+                """);
+        jdbcTemplate.execute("ANALYZE patient");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+    }
+
+    @Test
+    void searchPatients_prefixAndTypo_findPatientsRankedByMatch() {
+        assertEquals(List.of("Johnathan Smithson", "Johnny Smith"), names(patientService.searchPatients("john", false, 10)));
+        assertEquals(List.of("Johnathan Smithson"), names(patientService.searchPatients("john", true, 10)));
+        assertEquals("Johnathan Smithson", patientService.searchPatients("smitson", false, 10).get(0).getName());
+        assertEquals(List.of("Maria 100%_sure"), names(patientService.searchPatients("maria 100%_", false, 10)));
+    }
+
+    @Test
+    void searchPatients_millionPatients_answerInLowMilliseconds() {
+        long prefixSearch = medianNanos("johnat");
+        long fuzzySearch = medianNanos("smitson");
+
+        log.debug("Search in {} patients: prefix {} us, typo {} us",
+                PATIENT_COUNT, prefixSearch / 1000, fuzzySearch / 1000);
+        assertTrue(prefixSearch < MAX_MEDIAN_NANOS, "Prefix search took " + prefixSearch + "ns");
+        assertTrue(fuzzySearch < MAX_MEDIAN_NANOS, "Typo search took " + fuzzySearch + "ns");
+    }
+
+    private long medianNanos(String query) {
+        long[] timings = new long[MEASUREMENTS];
+
+        for (int i = 0; i < MEASUREMENTS; i++) {
+            long start = System.nanoTime();
+            patientService.searchPatients(query, true, 20);
+            timings[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(timings);
+        return timings[MEASUREMENTS / 2];
+    }
+
+    private static List<String> names(List<PatientDto> patients) {
+        return patients.stream().map(PatientDto::getName).toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.example.test.service;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.exception.NotUniquePatientNameException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class PatientAdmissionTest extends PostgresIntegrationTest {
+
+    private static final int CONCURRENT_ADMISSIONS = 16;
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private PatientDto patientDto;
+
+    @BeforeEach
+    void init() {
+        patientDto = PatientDto.builder()
+                .name("Test name")
+                .birthDate(LocalDate.of(2024, 3, 5))
+                .isDischarged(false)
+                .lastPulse(90)
+                .lastTemperature(36.6)
+                .build();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+    }
+
+    @Test
+    void addNewPatient_correctData_issueOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        patientService.addNewPatient(patientDto);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void addNewPatient_nameIsNotUnique_issueOneStatementAndThrowException() {
+        patientService.addNewPatient(patientDto);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThrows(NotUniquePatientNameException.class, () -> patientService.addNewPatient(patientDto));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void addNewPatient_concurrentAdmissionsWithSameName_onlyOneSucceeds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_ADMISSIONS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PatientDto>> admissions = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < CONCURRENT_ADMISSIONS; i++) {
+                admissions.add(executor.submit(() -> {
+                    start.await();
+                    return patientService.addNewPatient(patientDto);
+                }));
+            }
+            start.countDown();
+
+            int admitted = 0;
+            int rejected = 0;
+            for (Future<PatientDto> admission : admissions) {
+                try {
+                    admission.get();
+                    admitted++;
+                } catch (Exception e) {
+                    assertTrue(e.getCause() instanceof NotUniquePatientNameException, e.toString());
+                    rejected++;
+                }
+            }
+
+            assertEquals(1, admitted);
+            assertEquals(CONCURRENT_ADMISSIONS - 1, rejected);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
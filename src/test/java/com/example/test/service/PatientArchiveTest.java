@@ -0,0 +1,119 @@
+package com.example.test.service;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.service.implementation.PatientArchiver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = {
+        "patient.archive.enabled=true",
+        "patient.archive.batch-size=100",
+        "patient.archive.interval=1h"
+})
+public class PatientArchiveTest extends PostgresIntegrationTest {
+
+    private static final int PATIENT_COUNT = 1000;
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private PatientArchiver patientArchiver;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void init() {
+        jdbcTemplate.update("""
+                INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged, discharged_at)
+                SELECT gen_random_uuid(), 'Patient ' || lpad(i::text, 4, '0'), DATE '1980-01-01', 36.6, 80,
+                       i % 2 = 0, CASE WHEN i % 2 = 0 THEN now() - i * INTERVAL '1 day' END
+                FROM generate_series(1, ?) AS i
+                """, PATIENT_COUNT);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient, patient_archive");
+    }
+
+    @Test
+    void archive_dischargedLongAgo_moveToMonthlyPartitions() {
+        Integer expectedArchived = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM patient WHERE is_discharged AND discharged_at < now() - INTERVAL '30 days'
+                """, Integer.class);
+
+        int archived = patientArchiver.archive();
+
+        assertEquals(expectedArchived, archived);
+        assertEquals(PATIENT_COUNT - archived, count("patient"));
+        assertEquals(archived, count("patient_archive"));
+        assertEquals(0, count("patient WHERE is_discharged AND discharged_at < now() - INTERVAL '30 days'"));
+        assertTrue(count("pg_inherits WHERE inhparent = 'patient_archive'::regclass") > 1);
+        assertEquals(0, patientArchiver.archive());
+    }
+
+    @Test
+    void archive_dischargedBeforeDischargeTimeWasSaved_archiveAsDischargedNow() {
+        jdbcTemplate.update("UPDATE patient SET discharged_at = NULL WHERE is_discharged");
+
+        int archived = patientArchiver.archive();
+
+        assertEquals(PATIENT_COUNT / 2, archived);
+        assertEquals(0, count("patient_archive WHERE discharged_at < now() - INTERVAL '1 day'"));
+    }
+
+    @Test
+    void dischargePatient_saveDischargeTime() {
+        UUID id = jdbcTemplate.queryForObject("SELECT id FROM patient WHERE NOT is_discharged LIMIT 1", UUID.class);
+
+        patientService.dischargePatient(id);
+
+        assertEquals(1, count("patient WHERE id = '" + id + "' AND discharged_at > now() - INTERVAL '1 minute'"));
+    }
+
+    @Test
+    void exportAndSearch_archivedPatients_findInArchive() {
+        patientArchiver.archive();
+        List<PatientDto> exported = new ArrayList<>();
+
+        patientService.exportPatients(true, null, null, exported::add);
+        List<PatientDto> found = patientService.searchPatients("patient 0998", false, 10);
+        List<PatientDto> foundActive = patientService.searchPatients("patient 0998", true, 10);
+
+        assertEquals(PATIENT_COUNT / 2, exported.size());
+        assertEquals("Patient 0998", found.get(0).getName());
+        assertTrue(found.get(0).isDischarged());
+        assertTrue(foundActive.stream().noneMatch(patient -> patient.getName().equals("Patient 0998")));
+    }
+
+    @Test
+    void addNewPatient_nameOfArchivedPatient_reuseName() {
+        patientArchiver.archive();
+
+        patientService.addNewPatient(PatientDto.builder()
+                .name("Patient 0998")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build());
+
+        assertEquals(1, count("patient WHERE name = 'Patient 0998'"));
+        assertEquals(1, count("patient_archive WHERE name = 'Patient 0998'"));
+    }
+
+    private int count(String from) {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + from, Integer.class);
+        return count == null ? 0 : count;
+    }
+}
\ No newline at end of file
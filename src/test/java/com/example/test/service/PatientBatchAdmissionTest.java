@@ -0,0 +1,80 @@
+package com.example.test.service;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientBatchResultDto;
+import com.example.test.controller.dto.PatientBatchStatus;
+import com.example.test.controller.dto.PatientDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+public class PatientBatchAdmissionTest extends PostgresIntegrationTest {
+
+    private static final int PATIENT_COUNT = 10_000;
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+    }
+
+    @Test
+    void addNewPatients_someNamesAreNotUnique_rejectOnlyThem() {
+        patientService.addNewPatient(patient("Taken name"));
+
+        List<PatientBatchResultDto> results = patientService.addNewPatients(
+                List.of(patient("First name"), patient("Taken name"), patient("First name"), patient("Second name")));
+
+        assertEquals(List.of(PatientBatchStatus.CREATED, PatientBatchStatus.NOT_UNIQUE_NAME,
+                        PatientBatchStatus.NOT_UNIQUE_NAME, PatientBatchStatus.CREATED),
+                results.stream().map(PatientBatchResultDto::getStatus).toList());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(*) FROM patient", Integer.class));
+    }
+
+    @Test
+    void addNewPatients_tenThousandPatients_fasterThanOneByOne() {
+        List<PatientDto> singlePatients = patients("Single ");
+        long singleStart = System.nanoTime();
+        singlePatients.forEach(patientService::addNewPatient);
+        long singleNanos = System.nanoTime() - singleStart;
+
+        List<PatientDto> batchPatients = patients("Batch ");
+        long batchStart = System.nanoTime();
+        List<PatientBatchResultDto> results = patientService.addNewPatients(batchPatients);
+        long batchNanos = System.nanoTime() - batchStart;
+
+        log.debug("Admission of {} patients: one by one {} rows/s, batch {} rows/s",
+                PATIENT_COUNT, Math.round(PATIENT_COUNT * 1e9 / singleNanos), Math.round(PATIENT_COUNT * 1e9 / batchNanos));
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == PatientBatchStatus.CREATED));
+        assertTrue(batchNanos < singleNanos);
+    }
+
+    private List<PatientDto> patients(String namePrefix) {
+        return IntStream.range(0, PATIENT_COUNT)
+                .mapToObj(i -> patient(namePrefix + i))
+                .toList();
+    }
+
+    private PatientDto patient(String name) {
+        return PatientDto.builder()
+                .name(name)
+                .birthDate(LocalDate.of(2024, 3, 5))
+                .lastPulse(90)
+                .lastTemperature(36.6)
+                .build();
+    }
+}
\ No newline at end of file
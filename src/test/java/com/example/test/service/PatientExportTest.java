@@ -0,0 +1,73 @@
+package com.example.test.service;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+public class PatientExportTest extends PostgresIntegrationTest {
+
+    private static final int PATIENT_COUNT = 100_000;
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void init() {
+        jdbcTemplate.update("""
+                INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged)
+                SELECT gen_random_uuid(), 'Patient ' || lpad(i::text, 7, '0'), DATE '1950-01-01' + i % 20000,
+                       36.6, 80, i % 4 = 0
+                FROM generate_series(1, ?) AS i
+                """, PATIENT_COUNT);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+    }
+
+    @Test
+    void exportPatients_noFilters_exportEveryPatient() {
+        AtomicInteger exported = new AtomicInteger();
+
+        long start = System.nanoTime();
+        patientService.exportPatients(null, null, null, patient -> exported.incrementAndGet());
+        long nanos = System.nanoTime() - start;
+
+        log.debug("Export of {} patients: {} rows/s", PATIENT_COUNT, Math.round(PATIENT_COUNT * 1e9 / nanos));
+        assertEquals(PATIENT_COUNT, exported.get());
+    }
+
+    @Test
+    void exportPatients_withFilters_exportOnlyMatchingPatients() {
+        LocalDate birthDateFrom = LocalDate.of(1980, 1, 1);
+        LocalDate birthDateTo = LocalDate.of(1989, 12, 31);
+        List<PatientDto> patients = new ArrayList<>();
+
+        patientService.exportPatients(true, birthDateFrom, birthDateTo, patients::add);
+
+        Integer expectedCount = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM patient
+                WHERE is_discharged AND birth_date BETWEEN ? AND ?
+                """, Integer.class, birthDateFrom, birthDateTo);
+        assertEquals(expectedCount, patients.size());
+        assertTrue(patients.stream().allMatch(patient -> patient.isDischarged()
+                && !patient.getBirthDate().isBefore(birthDateFrom) && !patient.getBirthDate().isAfter(birthDateTo)));
+    }
+}
\ No newline at end of file
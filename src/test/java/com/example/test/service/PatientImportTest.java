@@ -0,0 +1,154 @@
+package com.example.test.service;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.PatientImportConflictDto;
+import com.example.test.controller.dto.PatientImportResultDto;
+import com.example.test.exception.IncorrectRequestParameterException;
+import com.example.test.service.cache.NotDischargedPatientsCache;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+public class PatientImportTest extends PostgresIntegrationTest {
+
+    private static final String HEADER = "name,birth_date,last_temperature,last_pulse,is_discharged\n";
+    private static final int PATIENT_COUNT = 1_000_000;
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private NotDischargedPatientsCache notDischargedPatientsCache;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+        notDischargedPatientsCache.invalidate();
+    }
+
+    @Test
+    void importPatients_takenAndRepeatedNames_importOthersAndReportConflicts() {
+        patientService.addNewPatient(PatientDto.builder().name("Taken name").birthDate(LocalDate.of(2000, 1, 1)).build());
+        patientService.getNotDischargedPatientsSnapshot();
+
+        PatientImportResultDto result = patientService.importPatients(csv(HEADER
+                + "First name,2001-02-03,36.6,80,false\n"
+                + "Taken name,2001-02-03,36.6,80,false\n"
+                + "\"Second, name\",2001-02-03,,,true\n"
+                + "First name,2001-02-03,37.0,90,false\n"));
+
+        assertEquals(4, result.getRows());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getConflicts());
+        assertEquals(List.of(new PatientImportConflictDto(2, "Taken name"), new PatientImportConflictDto(4, "First name")),
+                result.getConflictSample());
+        assertEquals(List.of("First name", "Taken name"), patientService.getAllNotDischargedPatients().stream()
+                .map(PatientDto::getName).toList());
+        assertTrue(new String(patientService.getNotDischargedPatientsSnapshot().body(), StandardCharsets.UTF_8)
+                .contains("First name"));
+    }
+
+    @Test
+    void importPatients_incorrectDate_importNothing() {
+        assertThrows(IncorrectRequestParameterException.class, () -> patientService.importPatients(csv(HEADER
+                + "First name,2001-02-03,36.6,80,false\n"
+                + "Second name,not a date,36.6,80,false\n")));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM patient", Integer.class));
+    }
+
+    @Test
+    void importPatients_emptyName_reportLineAndImportNothing() {
+        IncorrectRequestParameterException exception = assertThrows(IncorrectRequestParameterException.class,
+                () -> patientService.importPatients(csv(HEADER
+                        + "First name,2001-02-03,36.6,80,false\n"
+                        + ",2001-02-03,36.6,80,false\n")));
+
+        assertTrue(exception.getMessage().contains("line 3"), exception.getMessage());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM patient", Integer.class));
+    }
+
+    @Test
+    void importPatients_emptyBirthDate_reportLineAndImportNothing() {
+        IncorrectRequestParameterException exception = assertThrows(IncorrectRequestParameterException.class,
+                () -> patientService.importPatients(csv(HEADER
+                        + "First name,2001-02-03,36.6,80,false\n"
+                        + "Second name,,36.6,80,false\n")));
+
+        assertTrue(exception.getMessage().contains("line 3"), exception.getMessage());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM patient", Integer.class));
+    }
+
+    @Test
+    void importPatients_millionRows_importAllInBoundedMemory() {
+        PatientImportResultDto result = patientService.importPatients(new GeneratedCsvInputStream(PATIENT_COUNT));
+
+        log.debug("Import of {} patients: {} rows/s", PATIENT_COUNT, Math.round(result.getRowsPerSecond()));
+        assertEquals(PATIENT_COUNT, result.getRows());
+        assertEquals(PATIENT_COUNT, result.getImported());
+        assertEquals(PATIENT_COUNT, jdbcTemplate.queryForObject("SELECT count(*) FROM patient", Integer.class));
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Produces CSV rows while they are read, so the file never exists in memory as a whole.
+     */
+    private static class GeneratedCsvInputStream extends InputStream {
+
+        private final int rows;
+        private int row = -1;
+        private byte[] line = new byte[0];
+        private int position;
+
+        GeneratedCsvInputStream(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length && !nextLine()) {
+                return -1;
+            }
+            return line[position++];
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position == line.length && !nextLine()) {
+                return -1;
+            }
+            int read = Math.min(length, line.length - position);
+            System.arraycopy(line, position, buffer, offset, read);
+            position += read;
+            return read;
+        }
+
+        private boolean nextLine() {
+            if (++row > rows) {
+                return false;
+            }
+            String text = row == 0 ? HEADER : "Imported " + row + ",1990-01-01,36.6,80," + (row % 10 == 0) + "\n";
+            line = text.getBytes(StandardCharsets.US_ASCII);
+            position = 0;
+            return true;
+        }
+    }
+}
\ No newline at end of file
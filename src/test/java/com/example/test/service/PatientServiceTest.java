@@ -1,11 +1,37 @@
 package com.example.test.service;
 
+import com.example.test.controller.dto.PatientBatchDischargeDto;
+import com.example.test.controller.dto.PatientBatchResultDto;
+import com.example.test.controller.dto.PatientBatchStatus;
 import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.PatientImportConflictDto;
+import com.example.test.controller.dto.PatientImportResultDto;
+import com.example.test.controller.dto.PatientPageDto;
+import com.example.test.controller.dto.PatientVitalsDto;
+import com.example.test.controller.dto.WardStatisticsDto;
 import com.example.test.controller.mapper.PatientMapper;
+import com.example.test.exception.IncorrectRequestParameterException;
+import com.example.test.exception.NoPatientWithSuchIdException;
+import com.example.test.exception.NotUniquePatientNameException;
 import com.example.test.exception.PatientException;
+import com.example.test.exception.PatientVersionMismatchException;
 import com.example.test.model.entity.Patient;
+import com.example.test.model.entity.PatientVitals;
+import com.example.test.model.id.PatientIdGenerator;
+import com.example.test.model.id.TimeOrderedPatientIdGenerator;
+import com.example.test.repository.PatientImportRepository;
+import com.example.test.repository.PatientJdbcRepository;
 import com.example.test.repository.PatientRepository;
 import com.example.test.service.implementation.PatientServiceImpl;
+import com.example.test.service.cache.NotDischargedPatientsCache;
+import com.example.test.service.cache.WardStatisticsCache;
+import com.example.test.service.feed.PatientFeedHub;
+import com.example.test.service.cache.PatientsSnapshot;
+import com.example.test.service.event.PatientChangeType;
+import com.example.test.service.event.PatientChangedEvent;
+import com.example.test.service.event.PatientsImportedEvent;
+import com.example.test.service.implementation.PatientVitalsBuffer;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,15 +40,38 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import static com.example.test.service.implementation.PatientServiceImpl.IMPORT_CONFLICT_SAMPLE_SIZE;
+import static com.example.test.service.implementation.PatientServiceImpl.INCORRECT_BATCH_SIZE;
+import static com.example.test.service.implementation.PatientServiceImpl.INCORRECT_PAGE_LIMIT;
+import static com.example.test.service.implementation.PatientServiceImpl.INCORRECT_SEARCH_QUERY;
 import static com.example.test.service.implementation.PatientServiceImpl.NOT_UNIQUE_NAME;
+import static com.example.test.service.implementation.PatientServiceImpl.NO_PATIENT_BY_ID;
 import static com.example.test.service.implementation.PatientServiceImpl.NO_PATIENT_BY_ID_OR_IS_DISCHARGED;
+import static com.example.test.service.implementation.PatientServiceImpl.PATIENT_VERSION_MISMATCH;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,8 +81,24 @@ public class PatientServiceTest {
     private PatientServiceImpl patientService;
     @Mock
     private PatientRepository patientRepository;
+    @Mock
+    private PatientJdbcRepository patientJdbcRepository;
+    @Mock
+    private PatientImportRepository patientImportRepository;
+    @Mock
+    private PatientVitalsBuffer patientVitalsBuffer;
+    @Mock
+    private NotDischargedPatientsCache notDischargedPatientsCache;
+    @Mock
+    private WardStatisticsCache wardStatisticsCache;
+    @Mock
+    private PatientFeedHub patientFeedHub;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @Spy
     private PatientMapper patientMapper = Mappers.getMapper(PatientMapper.class);
+    @Spy
+    private PatientIdGenerator patientIdGenerator = new TimeOrderedPatientIdGenerator();
 
     private Patient patient;
     private PatientDto patientDto;
@@ -53,45 +118,72 @@ public class PatientServiceTest {
 
     @Test
     void addNewPatient_correctData_returnPatient() {
-        when(patientRepository.save(patient)).thenReturn(patient);
-        when(patientRepository.existsByName("Test name")).thenReturn(false);
+        when(patientRepository.insertIfNameIsUnique(any(Patient.class))).thenReturn(Optional.of(patient));
 
         PatientDto actualResult = patientService.addNewPatient(patientDto);
         PatientDto expectedResult = patientMapper.toPatientDto(patient);
 
         assertEquals(expectedResult, actualResult);
+        verify(patientRepository, never()).existsByName(any());
+        verify(eventPublisher).publishEvent(argThat((PatientChangedEvent event) ->
+                event.type() == PatientChangeType.ADMITTED && event.patient().equals(expectedResult)));
     }
 
     @Test
     void addNewPatient_nameIsNotUnique_throwException() {
-        when(patientRepository.existsByName("Test name")).thenReturn(true);
+        when(patientRepository.insertIfNameIsUnique(any(Patient.class))).thenReturn(Optional.empty());
 
-        assertThrows(PatientException.class, () -> patientService.addNewPatient(patientDto),
+        assertThrows(NotUniquePatientNameException.class, () -> patientService.addNewPatient(patientDto),
                 NOT_UNIQUE_NAME);
     }
 
+    @Test
+    void addNewPatients_someNamesAreNotUnique_returnResultForEveryPatient() {
+        PatientDto takenPatientDto = PatientDto.builder().name("Taken name").build();
+        PatientDto racedPatientDto = PatientDto.builder().name("Raced name").build();
+        List<PatientDto> patientDtoList = List.of(patientDto, takenPatientDto, patientDto, racedPatientDto);
+
+        when(patientRepository.findExistingNames(List.of("Test name", "Taken name", "Test name", "Raced name")))
+                .thenReturn(List.of("Taken name"));
+        when(patientJdbcRepository.insertAllIfNameIsUnique(anyList())).thenReturn(new boolean[]{true, false});
+
+        List<PatientBatchResultDto> actualResult = patientService.addNewPatients(patientDtoList);
+
+        assertEquals(List.of(PatientBatchStatus.CREATED, PatientBatchStatus.NOT_UNIQUE_NAME,
+                        PatientBatchStatus.NOT_UNIQUE_NAME, PatientBatchStatus.NOT_UNIQUE_NAME),
+                actualResult.stream().map(PatientBatchResultDto::getStatus).toList());
+        assertEquals(patientDto.getName(), actualResult.get(0).getPatient().getName());
+        assertNotNull(actualResult.get(0).getPatient().getId());
+        assertNull(actualResult.get(3).getPatient());
+    }
+
+    @Test
+    void addNewPatients_emptyBatch_throwException() {
+        assertThrows(PatientException.class, () -> patientService.addNewPatients(List.of()),
+                INCORRECT_BATCH_SIZE);
+    }
+
     @Test
     void changeInformationAboutPatient_correctData_returnUpdatedPatient() {
         UUID id = UUID.randomUUID();
 
-        when(patientRepository.existsByName("Test name")).thenReturn(false);
-        when(patientRepository.existsByIdAndIsDischargedIsFalse(id)).thenReturn(true);
-        when(patientRepository.save(patient)).thenReturn(patient);
-        when(patientRepository.getReferenceById(id)).thenReturn(patient);
+        when(patientRepository.updateIfNotDischarged(id, patient, null)).thenReturn(Optional.of(patient));
 
         PatientDto actualResult = patientService.changeInformationAboutPatient(id, patientDto);
         PatientDto expectedResult = patientMapper.toPatientDto(patient);
 
         assertEquals(expectedResult, actualResult);
+        verify(patientRepository, never()).existsByName(any());
+        verify(patientRepository, never()).getReferenceById(any());
     }
 
     @Test
     void changeInformationAboutPatient_patientIdIsNotCorrect_throwException() {
         UUID id = UUID.randomUUID();
 
-        when(patientRepository.existsByIdAndIsDischargedIsFalse(id)).thenReturn(false);
+        when(patientRepository.updateIfNotDischarged(id, patient, null)).thenReturn(Optional.empty());
 
-        assertThrows(PatientException.class, () -> patientService.changeInformationAboutPatient(id, patientDto),
+        assertThrows(NoPatientWithSuchIdException.class, () -> patientService.changeInformationAboutPatient(id, patientDto),
                 NO_PATIENT_BY_ID_OR_IS_DISCHARGED);
     }
 
@@ -99,54 +191,237 @@ public class PatientServiceTest {
     void changeInformationAboutPatient_nameIsNotUnique_throwException() {
         UUID id = UUID.randomUUID();
 
-        when(patientRepository.existsByIdAndIsDischargedIsFalse(id)).thenReturn(true);
-        when(patientRepository.existsByName("Test name")).thenReturn(true);
+        when(patientRepository.updateIfNotDischarged(id, patient, null)).thenThrow(new DataIntegrityViolationException(
+                NOT_UNIQUE_NAME, new ConstraintViolationException(NOT_UNIQUE_NAME, null, "order_date_unique")));
 
-        assertThrows(PatientException.class, () -> patientService.changeInformationAboutPatient(id, patientDto),
+        assertThrows(NotUniquePatientNameException.class, () -> patientService.changeInformationAboutPatient(id, patientDto),
                 NOT_UNIQUE_NAME);
     }
 
     @Test
-    void dischargePatient_correctData_returnDischargedPatient() {
+    void changeInformationAboutPatient_versionIsNotExpected_throwException() {
         UUID id = UUID.randomUUID();
 
+        when(patientRepository.updateIfNotDischarged(id, patient, 3L)).thenReturn(Optional.empty());
         when(patientRepository.existsByIdAndIsDischargedIsFalse(id)).thenReturn(true);
-        when(patientRepository.getReferenceById(id)).thenReturn(patient);
-        when(patientRepository.save(patient)).thenReturn(patient);
+
+        assertThrows(PatientVersionMismatchException.class, () -> patientService.changeInformationAboutPatient(id, patientDto, 3L),
+                PATIENT_VERSION_MISMATCH);
+    }
+
+    @Test
+    void getPatient_correctId_returnPatient() {
+        UUID id = UUID.randomUUID();
+
+        when(patientRepository.findById(id)).thenReturn(Optional.of(patient));
+
+        assertEquals(patientDto, patientService.getPatient(id));
+    }
+
+    @Test
+    void getPatient_patientIdIsNotCorrect_throwException() {
+        UUID id = UUID.randomUUID();
+
+        when(patientRepository.findById(id)).thenReturn(Optional.empty());
+
+        assertThrows(NoPatientWithSuchIdException.class, () -> patientService.getPatient(id), NO_PATIENT_BY_ID);
+    }
+
+    @Test
+    void getWardStatistics_returnStatisticsFromCache() {
+        WardStatisticsDto statistics = WardStatisticsDto.builder().activePatients(3).build();
+
+        when(wardStatisticsCache.getStatistics()).thenReturn(statistics);
+
+        assertEquals(statistics, patientService.getWardStatistics());
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    void dischargePatient_correctData_returnDischargedPatient() {
+        UUID id = UUID.randomUUID();
+
+        when(patientRepository.dischargeIfNotDischarged(id, null)).thenReturn(Optional.of(patient));
 
         PatientDto actualResult = patientService.dischargePatient(id);
         PatientDto expectedResult = patientMapper.toPatientDto(patient);
 
         assertEquals(expectedResult, actualResult);
+        verify(eventPublisher).publishEvent(argThat((PatientChangedEvent event) ->
+                event.type() == PatientChangeType.DISCHARGED && event.patient().equals(expectedResult)));
     }
 
     @Test
     void dischargePatient_patientIdIsNotCorrect_throwException() {
         UUID id = UUID.randomUUID();
 
-        when(patientRepository.existsByIdAndIsDischargedIsFalse(id)).thenReturn(false);
+        when(patientRepository.dischargeIfNotDischarged(id, null)).thenReturn(Optional.empty());
 
         assertThrows(PatientException.class, () -> patientService.dischargePatient(id),
                 NO_PATIENT_BY_ID_OR_IS_DISCHARGED);
+        verify(patientRepository, never()).existsByIdAndIsDischargedIsFalse(id);
+    }
+
+    @Test
+    void dischargePatient_patientIdIsNotCorrectAndVersionIsGiven_throwException() {
+        UUID id = UUID.randomUUID();
+
+        when(patientRepository.dischargeIfNotDischarged(id, 3L)).thenReturn(Optional.empty());
+        when(patientRepository.existsByIdAndIsDischargedIsFalse(id)).thenReturn(false);
+
+        assertThrows(NoPatientWithSuchIdException.class, () -> patientService.dischargePatient(id, 3L),
+                NO_PATIENT_BY_ID_OR_IS_DISCHARGED);
+    }
+
+    @Test
+    void dischargePatients_someIdsAreNotCorrect_returnDischargedPatientsAndNotDischargedIds() {
+        UUID dischargedId = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        patient.setId(dischargedId);
+        patient.setDischarged(true);
+        PatientDto dischargedPatient = patientMapper.toPatientDto(patient);
+
+        when(patientJdbcRepository.dischargeAllIfNotDischarged(List.of(dischargedId, unknownId)))
+                .thenReturn(List.of(dischargedPatient));
+
+        PatientBatchDischargeDto actualResult = patientService.dischargePatients(List.of(dischargedId, unknownId));
+
+        assertEquals(List.of(dischargedPatient), actualResult.getDischarged());
+        assertEquals(List.of(unknownId), actualResult.getNotDischargedIds());
+    }
+
+    @Test
+    void addVitals_correctData_addReadingToBuffer() {
+        UUID id = UUID.randomUUID();
+        Instant measuredAt = Instant.parse("2024-03-05T10:15:30Z");
+        PatientVitalsDto patientVitalsDto = PatientVitalsDto.builder()
+                .temperature(37.2)
+                .pulse(75)
+                .measuredAt(measuredAt)
+                .build();
+
+        patientService.addVitals(id, patientVitalsDto);
+
+        verify(patientVitalsBuffer).add(PatientVitals.builder()
+                .patientId(id)
+                .temperature(37.2)
+                .pulse(75)
+                .measuredAt(measuredAt)
+                .build());
+    }
+
+    @Test
+    void importPatients_someNamesAreTaken_returnCountsAndConflicts() {
+        InputStream csv = new ByteArrayInputStream(new byte[0]);
+        List<PatientImportConflictDto> conflicts = List.of(new PatientImportConflictDto(2, "Test name"));
+
+        when(patientImportRepository.copyIntoStagingTable(any())).thenReturn(3L);
+        when(patientImportRepository.findConflicts(IMPORT_CONFLICT_SAMPLE_SIZE)).thenReturn(conflicts);
+        when(patientImportRepository.mergeStagingTable()).thenReturn(2L);
+
+        PatientImportResultDto actualResult = patientService.importPatients(csv);
+
+        assertEquals(3, actualResult.getRows());
+        assertEquals(2, actualResult.getImported());
+        assertEquals(1, actualResult.getConflicts());
+        assertEquals(conflicts, actualResult.getConflictSample());
+        verify(patientImportRepository).createStagingTable();
+        verify(eventPublisher).publishEvent(argThat((PatientsImportedEvent event) -> event.imported() == 2));
+    }
+
+    @Test
+    void importPatients_fileIsNotCorrect_throwException() {
+        when(patientImportRepository.copyIntoStagingTable(any()))
+                .thenThrow(new DataIntegrityViolationException("invalid input syntax for type date"));
+
+        assertThrows(IncorrectRequestParameterException.class,
+                () -> patientService.importPatients(new ByteArrayInputStream(new byte[0])));
+        verify(patientImportRepository, never()).mergeStagingTable();
     }
 
     @Test
     void getAllNotDischargedPatients_thereAreNoDischargedPatients_returnPatientList() {
-        when(patientRepository.findByIsDischargedIsFalseOrderByNameAsc()).thenReturn(List.of(patient));
+        when(patientRepository.findNotDischargedPatients()).thenReturn(List.of(patientDto));
 
         List<PatientDto> actualResult = patientService.getAllNotDischargedPatients();
-        List<PatientDto> expectedResult = List.of(patientMapper.toPatientDto(patient));
+        List<PatientDto> expectedResult = List.of(patientDto);
 
         assertEquals(expectedResult, actualResult);
     }
 
     @Test
     void getAllNotDischargedPatients_thereAreNoPatients_returnEmptyList() {
-        when(patientRepository.findByIsDischargedIsFalseOrderByNameAsc()).thenReturn(List.of());
+        when(patientRepository.findNotDischargedPatients()).thenReturn(List.of());
 
         List<PatientDto> actualResult = patientService.getAllNotDischargedPatients();
         List<PatientDto> expectedResult = List.of();
 
         assertEquals(expectedResult, actualResult);
     }
+
+    @Test
+    void searchPatients_mixedCaseQuery_searchLowerCaseName() {
+        when(patientJdbcRepository.searchByName("test na", false, 10)).thenReturn(List.of(patientDto));
+
+        assertEquals(List.of(patientDto), patientService.searchPatients(" Test Na ", false, 10));
+    }
+
+    @Test
+    void searchPatients_blankQuery_throwException() {
+        assertThrows(IncorrectRequestParameterException.class, () -> patientService.searchPatients(" ", false, 10),
+                INCORRECT_SEARCH_QUERY);
+        verifyNoInteractions(patientJdbcRepository);
+    }
+
+    @Test
+    void exportPatients_withFilters_passEveryPatientToConsumer() {
+        LocalDate birthDateTo = LocalDate.of(2024, 12, 31);
+        List<PatientDto> exportedPatients = new ArrayList<>();
+
+        when(patientJdbcRepository.streamPatients(null, null, birthDateTo)).thenReturn(Stream.of(patientDto));
+
+        patientService.exportPatients(null, null, birthDateTo, exportedPatients::add);
+
+        assertEquals(List.of(patientDto), exportedPatients);
+    }
+
+    @Test
+    void getNotDischargedPatientsSnapshot_returnSnapshotFromCache() {
+        PatientsSnapshot snapshot = new PatientsSnapshot(new byte[]{'[', ']'}, "\"1\"");
+
+        when(notDischargedPatientsCache.getSnapshot()).thenReturn(snapshot);
+
+        assertEquals(snapshot, patientService.getNotDischargedPatientsSnapshot());
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    void getNotDischargedPatientsPage_firstPageWithMorePatients_returnPageAndCursor() {
+        PatientDto nextPatientDto = PatientDto.builder().name("Test name 2").build();
+
+        when(patientRepository.findNotDischargedPatients(Limit.of(2)))
+                .thenReturn(List.of(patientDto, nextPatientDto));
+
+        PatientPageDto actualResult = patientService.getNotDischargedPatientsPage(null, 1);
+
+        assertEquals(List.of(patientDto), actualResult.getPatients());
+        assertEquals("Test name", actualResult.getNextCursor());
+    }
+
+    @Test
+    void getNotDischargedPatientsPage_lastPage_returnPageWithoutCursor() {
+        when(patientRepository.findNotDischargedPatientsWithNameAfter("A name", Limit.of(3)))
+                .thenReturn(List.of(patientDto));
+
+        PatientPageDto actualResult = patientService.getNotDischargedPatientsPage("A name", 2);
+
+        assertEquals(List.of(patientDto), actualResult.getPatients());
+        assertNull(actualResult.getNextCursor());
+    }
+
+    @Test
+    void getNotDischargedPatientsPage_limitIsNotCorrect_throwException() {
+        assertThrows(PatientException.class, () -> patientService.getNotDischargedPatientsPage(null, 0),
+                INCORRECT_PAGE_LIMIT);
+    }
 }
\ No newline at end of file
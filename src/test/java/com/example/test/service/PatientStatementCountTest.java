@@ -0,0 +1,125 @@
+package com.example.test.service;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.service.cache.NotDischargedPatientsCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.test.StatementCountAssertions.assertMaxStatements;
+
+/**
+ * Statement budget of every {@link PatientService} method.
+ * Lower the budget when a method gets cheaper, so redundant queries do not come back unnoticed.
+ */
+public class PatientStatementCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private NotDischargedPatientsCache notDischargedPatientsCache;
+
+    private UUID patientId;
+
+    @BeforeEach
+    void init() {
+        patientId = patientService.addNewPatient(patient("Counted name")).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+        notDischargedPatientsCache.invalidate();
+    }
+
+    @Test
+    void addNewPatient() {
+        assertMaxStatements(1, () -> patientService.addNewPatient(patient("New name")));
+    }
+
+    @Test
+    void addNewPatients() {
+        // Lookup of taken names and batch insert
+        assertMaxStatements(2, () -> patientService.addNewPatients(List.of(
+                patient("First name"), patient("Second name"), patient("Counted name"))));
+    }
+
+    @Test
+    void importPatients() {
+        String csv = "name,birth_date,last_temperature,last_pulse,is_discharged\n"
+                + "Imported name,1980-01-01,36.6,80,false\n";
+
+        // Staging table, its analyze, conflicts sample and merge, COPY itself is not a statement
+        assertMaxStatements(4, () -> patientService.importPatients(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void changeInformationAboutPatient() {
+        assertMaxStatements(1, () -> patientService.changeInformationAboutPatient(patientId, patient("Changed name")));
+    }
+
+    @Test
+    void dischargePatient() {
+        assertMaxStatements(1, () -> patientService.dischargePatient(patientId));
+    }
+
+    @Test
+    void dischargePatients() {
+        assertMaxStatements(1, () -> patientService.dischargePatients(List.of(patientId, UUID.randomUUID())));
+    }
+
+    @Test
+    void getPatient() {
+        assertMaxStatements(1, () -> patientService.getPatient(patientId));
+    }
+
+    @Test
+    void getAllNotDischargedPatients() {
+        assertMaxStatements(1, () -> patientService.getAllNotDischargedPatients());
+    }
+
+    @Test
+    void getNotDischargedPatientsSnapshot() {
+        assertMaxStatements(1, () -> patientService.getNotDischargedPatientsSnapshot());
+        assertMaxStatements(0, () -> patientService.getNotDischargedPatientsSnapshot());
+    }
+
+    @Test
+    void searchPatients() {
+        // Similarity threshold and search itself
+        assertMaxStatements(2, () -> patientService.searchPatients("counted", false, 10));
+    }
+
+    @Test
+    void getNotDischargedPatientsPage() {
+        assertMaxStatements(1, () -> patientService.getNotDischargedPatientsPage(null, 10));
+        assertMaxStatements(1, () -> patientService.getNotDischargedPatientsPage("Counted name", 10));
+    }
+
+    @Test
+    void exportPatients() {
+        assertMaxStatements(1, () -> patientService.exportPatients(null, null, null, patientDto -> {
+        }));
+    }
+
+    private static PatientDto patient(String name) {
+        return PatientDto.builder()
+                .name(name)
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .lastTemperature(36.6)
+                .lastPulse(80)
+                .build();
+    }
+}
\ No newline at end of file
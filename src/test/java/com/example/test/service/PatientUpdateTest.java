@@ -0,0 +1,204 @@
+package com.example.test.service;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientBatchDischargeDto;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.exception.NoPatientWithSuchIdException;
+import com.example.test.exception.NotUniquePatientNameException;
+import com.example.test.exception.PatientVersionMismatchException;
+import com.example.test.repository.PatientRepository;
+import com.example.test.service.cache.NotDischargedPatientsCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class PatientUpdateTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private NotDischargedPatientsCache notDischargedPatientsCache;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    private UUID patientId;
+    private PatientDto patientDto;
+    private Statistics statistics;
+
+    @BeforeEach
+    void init() {
+        patientDto = PatientDto.builder()
+                .name("Test name")
+                .birthDate(LocalDate.of(2024, 3, 5))
+                .lastPulse(90)
+                .lastTemperature(36.6)
+                .build();
+
+        patientService.addNewPatient(PatientDto.builder()
+                .name("Other name")
+                .birthDate(LocalDate.of(2024, 3, 5))
+                .build());
+        patientService.addNewPatient(patientDto);
+        patientId = jdbcTemplate.queryForObject("SELECT id FROM patient WHERE name = 'Test name'", UUID.class);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+        notDischargedPatientsCache.invalidate();
+    }
+
+    @Test
+    void changeInformationAboutPatient_correctData_issueOneStatementAndIncrementVersion() {
+        patientDto.setLastTemperature(38.2);
+
+        PatientDto actualResult = patientService.changeInformationAboutPatient(patientId, patientDto);
+
+        assertEquals(38.2, actualResult.getLastTemperature());
+        assertEquals(1, actualResult.getVersion());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void changeInformationAboutPatient_nameIsNotUnique_throwException() {
+        patientDto.setName("Other name");
+
+        assertThrows(NotUniquePatientNameException.class,
+                () -> patientService.changeInformationAboutPatient(patientId, patientDto));
+    }
+
+    @Test
+    void changeInformationAboutPatient_versionIsNotExpected_throwException() {
+        patientService.changeInformationAboutPatient(patientId, patientDto, 0L);
+
+        assertThrows(PatientVersionMismatchException.class,
+                () -> patientService.changeInformationAboutPatient(patientId, patientDto, 0L));
+    }
+
+    @Test
+    void dischargePatient_correctData_issueOneStatement() {
+        PatientDto actualResult = patientService.dischargePatient(patientId);
+
+        assertTrue(actualResult.isDischarged());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void dischargePatient_patientIsDischarged_throwException() {
+        patientService.dischargePatient(patientId);
+
+        assertThrows(NoPatientWithSuchIdException.class, () -> patientService.dischargePatient(patientId));
+        assertThrows(NoPatientWithSuchIdException.class,
+                () -> patientService.changeInformationAboutPatient(patientId, patientDto));
+    }
+
+    @Test
+    void dischargePatients_someIdsAreNotCorrect_loadNoEntities() {
+        UUID otherPatientId = jdbcTemplate.queryForObject("SELECT id FROM patient WHERE name = 'Other name'", UUID.class);
+        patientService.dischargePatient(otherPatientId);
+        UUID unknownId = UUID.randomUUID();
+        statistics.clear();
+
+        PatientBatchDischargeDto actualResult = patientService.dischargePatients(List.of(patientId, otherPatientId, unknownId));
+
+        assertEquals(List.of(patientId), actualResult.getDischarged().stream().map(PatientDto::getId).toList());
+        assertEquals(List.of(otherPatientId, unknownId), actualResult.getNotDischargedIds());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getNotDischargedPatientsSnapshot_afterChanges_returnCommittedChangesReadingOnlyOrder() throws Exception {
+        patientService.getNotDischargedPatientsSnapshot();
+        UUID otherPatientId = jdbcTemplate.queryForObject("SELECT id FROM patient WHERE name = 'Other name'", UUID.class);
+
+        patientDto.setName("Changed name");
+        patientService.changeInformationAboutPatient(patientId, patientDto);
+        patientService.dischargePatient(otherPatientId);
+        statistics.clear();
+
+        PatientDto[] patients = objectMapper.readValue(
+                patientService.getNotDischargedPatientsSnapshot().body(), PatientDto[].class);
+
+        assertEquals(List.of("Changed name"), Arrays.stream(patients).map(PatientDto::getName).toList());
+        // Ids in the new name order
+        assertEquals(1, statistics.getPrepareStatementCount());
+        statistics.clear();
+
+        patientDto.setLastPulse(120);
+        patientService.changeInformationAboutPatient(patientId, patientDto);
+        statistics.clear();
+
+        patientService.getNotDischargedPatientsSnapshot();
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getNotDischargedPatientsSnapshot_caseInsensitiveCollation_returnDatabaseOrder() throws Exception {
+        changeNameCollation("und-x-icu");
+        try {
+            addNewPatients("bella", "Adam");
+            patientService.getNotDischargedPatientsSnapshot();
+            addNewPatients("adele", "Émile", "Bob");
+            patientDto.setName("zoe");
+            patientService.changeInformationAboutPatient(patientId, patientDto);
+
+            PatientDto[] patients = objectMapper.readValue(
+                    patientService.getNotDischargedPatientsSnapshot().body(), PatientDto[].class);
+
+            assertEquals(List.of("Adam", "adele", "bella", "Bob", "Émile", "Other name", "zoe"),
+                    Arrays.stream(patients).map(PatientDto::getName).toList());
+            assertEquals(patientRepository.findNotDischargedPatients().stream().map(PatientDto::getName).toList(),
+                    Arrays.stream(patients).map(PatientDto::getName).toList());
+        } finally {
+            changeNameCollation("default");
+        }
+    }
+
+    /**
+     * Pooled connections are evicted, because their prepared statements must not outlive the column type.
+     */
+    private void changeNameCollation(String collation) throws SQLException {
+        jdbcTemplate.execute("ALTER TABLE patient ALTER COLUMN name TYPE varchar(30) COLLATE \"" + collation + "\"");
+        dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().softEvictConnections();
+    }
+
+    private void addNewPatients(String... names) {
+        for (String name : names) {
+            patientService.addNewPatient(PatientDto.builder()
+                    .name(name)
+                    .birthDate(LocalDate.of(2024, 3, 5))
+                    .build());
+        }
+    }
+}
\ No newline at end of file
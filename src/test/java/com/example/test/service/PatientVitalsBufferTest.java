@@ -0,0 +1,139 @@
+package com.example.test.service;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.PatientVitalsDto;
+import com.example.test.exception.PatientVersionMismatchException;
+import com.example.test.exception.VitalsBufferIsStoppedException;
+import com.example.test.service.implementation.PatientVitalsBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PatientVitalsBufferTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private PatientVitalsBuffer patientVitalsBuffer;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UUID patientId;
+
+    @BeforeEach
+    void init() {
+        patientId = patientService.addNewPatient(PatientDto.builder()
+                .name("Test name")
+                .birthDate(LocalDate.of(2024, 3, 5))
+                .lastPulse(90)
+                .lastTemperature(36.6)
+                .build()).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient, patient_vitals");
+    }
+
+    @Test
+    void flush_manyReadings_appendAllAndKeepLatestAsLastVitals() {
+        Instant now = Instant.now();
+        patientService.addVitals(patientId, vitals(37.0, 80, now.minusSeconds(10)));
+        patientService.addVitals(patientId, vitals(38.5, 110, now));
+        patientService.addVitals(patientId, vitals(37.5, 95, now.minusSeconds(5)));
+        patientService.addVitals(UUID.randomUUID(), vitals(36.6, 70, now));
+
+        patientVitalsBuffer.flush();
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(*) FROM patient_vitals", Integer.class));
+        Map<String, Object> lastVitals = jdbcTemplate.queryForMap(
+                "SELECT last_temperature, last_pulse, version FROM patient WHERE id = ?", patientId);
+        assertEquals(38.5, ((Number) lastVitals.get("last_temperature")).doubleValue());
+        assertEquals(110, lastVitals.get("last_pulse"));
+        assertEquals(1L, lastVitals.get("version"));
+    }
+
+    @Test
+    void flush_updateBasedOnVersionBeforeFlush_throwException() {
+        PatientDto patientDto = patientService.getPatient(patientId);
+        patientService.addVitals(patientId, vitals(38.5, 110, Instant.now()));
+
+        patientVitalsBuffer.flush();
+
+        assertThrows(PatientVersionMismatchException.class,
+                () -> patientService.changeInformationAboutPatient(patientId, patientDto, patientDto.getVersion()));
+        assertEquals(38.5, patientService.getPatient(patientId).getLastTemperature());
+    }
+
+    @Test
+    void flush_firstSaveFails_saveReadingsOnRetry() {
+        patientService.addVitals(patientId, vitals(38.5, 110, Instant.now()));
+        jdbcTemplate.execute("ALTER TABLE patient_vitals RENAME TO patient_vitals_unavailable");
+        try {
+            patientVitalsBuffer.flush();
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE patient_vitals_unavailable RENAME TO patient_vitals");
+        }
+        patientService.addVitals(patientId, vitals(37.5, 95, Instant.now()));
+
+        patientVitalsBuffer.flush();
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM patient_vitals", Integer.class));
+        assertEquals(37.5, patientService.getPatient(patientId).getLastTemperature());
+        assertEquals(0, meterRegistry.get("patient.vitals.dropped").counter().count());
+    }
+
+    @Test
+    void flush_patientIsDischarged_skipReadings() {
+        patientService.dischargePatient(patientId);
+        patientService.addVitals(patientId, vitals(38.5, 110, Instant.now()));
+
+        patientVitalsBuffer.flush();
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM patient_vitals", Integer.class));
+    }
+
+    @Test
+    void addVitals_bufferIsStopped_throwExceptionAndSaveAcceptedReadings() {
+        patientService.addVitals(patientId, vitals(37.0, 80, Instant.now()));
+
+        patientVitalsBuffer.stop();
+        try {
+            assertThrows(VitalsBufferIsStoppedException.class,
+                    () -> patientService.addVitals(patientId, vitals(38.5, 110, Instant.now())));
+        } finally {
+            patientVitalsBuffer.start();
+        }
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM patient_vitals", Integer.class));
+    }
+
+    @Test
+    void getPhase_stopAfterWebServerGracefulShutdown() {
+        assertTrue(patientVitalsBuffer.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    private PatientVitalsDto vitals(double temperature, int pulse, Instant measuredAt) {
+        return PatientVitalsDto.builder()
+                .temperature(temperature)
+                .pulse(pulse)
+                .measuredAt(measuredAt)
+                .build();
+    }
+}
\ No newline at end of file
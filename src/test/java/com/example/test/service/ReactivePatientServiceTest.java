@@ -0,0 +1,172 @@
+package com.example.test.service;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.exception.NoPatientWithSuchIdException;
+import com.example.test.exception.NotUniquePatientNameException;
+import com.example.test.exception.PatientVersionMismatchException;
+import com.example.test.service.cache.NotDischargedPatientsCache;
+import com.example.test.service.event.PatientChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.blockhound.BlockHound;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("reactive")
+public class ReactivePatientServiceTest extends PostgresIntegrationTest {
+
+    private static final List<String> BLOCKING_CALLS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private ReactivePatientService patientService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private NotDischargedPatientsCache notDischargedPatientsCache;
+    @Autowired
+    private BlockingListener blockingListener;
+
+    private PatientDto patientDto;
+
+    /**
+     * Blocking calls made on non-blocking threads are recorded instead of failing,
+     * BlockHound stays installed for other tests running in the same JVM.
+     */
+    @BeforeAll
+    static void installBlockHound() {
+        BlockHound.builder()
+                .loadIntegrations()
+                .blockingMethodCallback(method -> BLOCKING_CALLS.add(method.toString()))
+                .install();
+    }
+
+    @BeforeEach
+    void init() {
+        BLOCKING_CALLS.clear();
+        patientDto = PatientDto.builder()
+                .name("Test name")
+                .birthDate(LocalDate.of(2024, 3, 5))
+                .lastPulse(90)
+                .lastTemperature(36.6)
+                .build();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+        notDischargedPatientsCache.invalidate();
+        blockingListener.handledChanges.set(0);
+    }
+
+    @Test
+    void changes_listenerBlocks_doNotBlockEventLoop() {
+        StepVerifier.create(patientService.addNewPatient(patientDto)
+                        .flatMap(patient -> patientService.changeInformationAboutPatient(patient.getId(), patientDto, null))
+                        .flatMap(patient -> patientService.dischargePatient(patient.getId(), null)))
+                .expectNextMatches(PatientDto::isDischarged)
+                .verifyComplete();
+
+        assertEquals(3, blockingListener.handledChanges.get());
+        assertEquals(List.of(), BLOCKING_CALLS);
+    }
+
+    @Test
+    void addNewPatient_nameIsNotUnique_signalNotUniquePatientNameException() {
+        StepVerifier.create(patientService.addNewPatient(patientDto))
+                .expectNextMatches(patient -> patient.getId() != null && patient.getVersion() == 0)
+                .verifyComplete();
+
+        StepVerifier.create(patientService.addNewPatient(patientDto))
+                .verifyError(NotUniquePatientNameException.class);
+    }
+
+    @Test
+    void changeInformationAboutPatient_nameOfOtherPatient_signalNotUniquePatientNameException() {
+        UUID id = patientService.addNewPatient(patientDto).block().getId();
+        patientService.addNewPatient(PatientDto.builder().name("Other name").birthDate(LocalDate.of(2024, 3, 5)).build())
+                .block();
+        patientDto.setName("Other name");
+
+        StepVerifier.create(patientService.changeInformationAboutPatient(id, patientDto, null))
+                .verifyError(NotUniquePatientNameException.class);
+    }
+
+    @Test
+    void changeInformationAboutPatient_staleVersion_signalPatientVersionMismatchException() {
+        UUID id = patientService.addNewPatient(patientDto).block().getId();
+
+        StepVerifier.create(patientService.changeInformationAboutPatient(id, patientDto, 0L))
+                .expectNextMatches(patient -> patient.getVersion() == 1)
+                .verifyComplete();
+        StepVerifier.create(patientService.changeInformationAboutPatient(id, patientDto, 0L))
+                .verifyError(PatientVersionMismatchException.class);
+    }
+
+    @Test
+    void dischargePatient_dischargedOrMissingPatient_signalNoPatientWithSuchIdException() {
+        UUID id = patientService.addNewPatient(patientDto).block().getId();
+
+        StepVerifier.create(patientService.dischargePatient(id, null))
+                .expectNextMatches(PatientDto::isDischarged)
+                .verifyComplete();
+        StepVerifier.create(patientService.dischargePatient(id, null))
+                .verifyError(NoPatientWithSuchIdException.class);
+        StepVerifier.create(patientService.getPatient(UUID.randomUUID()))
+                .verifyError(NoPatientWithSuchIdException.class);
+    }
+
+    @Test
+    void getAllNotDischargedPatients_streamPatientsOrderedByName() {
+        jdbcTemplate.update("""
+                INSERT INTO patient (id, name, birth_date, last_temperature, last_pulse, is_discharged)
+                SELECT gen_random_uuid(), 'Patient ' || lpad(i::text, 5, '0'), DATE '1980-01-01', 36.6, 80, i % 10 = 0
+                FROM generate_series(1, 10000) AS i
+                """);
+
+        StepVerifier.create(patientService.getAllNotDischargedPatients().map(PatientDto::getName), 100)
+                .expectNext("Patient 00001")
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(8999)
+                .verifyComplete();
+        assertEquals("Patient 00002", patientService.getNotDischargedPatientsPage("Patient 00001", 1).block()
+                .getPatients().get(0).getName());
+    }
+
+    @TestConfiguration
+    static class BlockingListenerConfig {
+        @Bean
+        BlockingListener blockingListener() {
+            return new BlockingListener();
+        }
+    }
+
+    /**
+     * Blocks like a listener waiting for a cache monitor or a JDBC call.
+     */
+    static class BlockingListener {
+
+        private final AtomicInteger handledChanges = new AtomicInteger();
+
+        @EventListener
+        public void onPatientChanged(PatientChangedEvent event) throws InterruptedException {
+            Thread.sleep(1);
+            handledChanges.incrementAndGet();
+        }
+    }
+}
\ No newline at end of file
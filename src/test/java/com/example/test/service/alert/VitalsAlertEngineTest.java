@@ -0,0 +1,158 @@
+package com.example.test.service.alert;
+
+import com.example.test.config.VitalsAlertProperties;
+import com.example.test.config.VitalsAlertProperties.Vital;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.service.event.PatientChangeType;
+import com.example.test.service.event.PatientChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VitalsAlertEngineTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    private final List<VitalsAlert> alerts = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID patientId = UUID.randomUUID();
+
+    private VitalsAlertEngine engine;
+
+    @BeforeEach
+    void init() {
+        VitalsAlertProperties properties = new VitalsAlertProperties();
+        properties.setRules(List.of(
+                rule("fever", Vital.TEMPERATURE, 38.0, null, null),
+                rule("temperature-rising", Vital.TEMPERATURE, null, null, 1.0),
+                rule("pulse-out-of-band", Vital.PULSE, 120.0, 50.0, null)));
+        engine = new VitalsAlertEngine(properties, List.of(alerts::add), meterRegistry);
+    }
+
+    @Test
+    void evaluate_feverAppears_raiseOnce() {
+        engine.evaluate(patient(0, 36.6, 80), NOW);
+        engine.evaluate(patient(1, 38.5, 80), NOW.plusSeconds(60));
+        engine.evaluate(patient(2, 38.7, 80), NOW.plusSeconds(120));
+
+        assertEquals(List.of(alert("fever", VitalsAlertState.RAISED, 38.5, NOW.plusSeconds(60)),
+                alert("temperature-rising", VitalsAlertState.RAISED, 38.5, NOW.plusSeconds(60)),
+                alert("temperature-rising", VitalsAlertState.CLEARED, 38.7, NOW.plusSeconds(120))), alerts);
+        assertEquals(1, meterRegistry.get("patient.alerts.raised").tag("rule", "fever").counter().count());
+    }
+
+    @Test
+    void evaluate_feverGone_clear() {
+        engine.evaluate(patient(0, 38.5, 80), NOW);
+        engine.evaluate(patient(1, 37.0, 80), NOW.plusSeconds(60));
+
+        assertEquals(List.of(alert("fever", VitalsAlertState.RAISED, 38.5, NOW),
+                alert("fever", VitalsAlertState.CLEARED, 37.0, NOW.plusSeconds(60))), alerts);
+    }
+
+    @Test
+    void evaluate_pulseOutsideBand_raiseOnBothSides() {
+        engine.evaluate(patient(0, 36.6, 130), NOW);
+        engine.evaluate(patient(1, 36.6, 80), NOW);
+        engine.evaluate(patient(2, 36.6, 40), NOW);
+
+        assertEquals(List.of(VitalsAlertState.RAISED, VitalsAlertState.CLEARED, VitalsAlertState.RAISED),
+                alerts.stream().map(VitalsAlert::state).toList());
+        assertTrue(alerts.stream().allMatch(alert -> alert.rule().equals("pulse-out-of-band")));
+    }
+
+    @Test
+    void evaluate_slowRise_noTrend() {
+        engine.evaluate(patient(0, 36.0, 80), NOW);
+        engine.evaluate(patient(1, 37.5, 80), NOW.plus(Duration.ofHours(7)));
+
+        assertEquals(List.of(), alerts);
+    }
+
+    @Test
+    void evaluate_notMeasured_noAlerts() {
+        engine.evaluate(patient(0, 0, 0), NOW);
+
+        assertEquals(List.of(), alerts);
+    }
+
+    @Test
+    void evaluate_olderVersion_ignore() {
+        engine.evaluate(patient(2, 36.6, 80), NOW);
+        engine.evaluate(patient(1, 39.0, 80), NOW);
+
+        assertEquals(List.of(), alerts);
+    }
+
+    @Test
+    void evaluate_sameVersion_ignore() {
+        engine.evaluate(patient(1, 36.6, 80), NOW);
+        engine.evaluate(patient(1, 39.0, 80), NOW);
+
+        assertEquals(List.of(), alerts);
+    }
+
+    @Test
+    void evaluate_sameVitals_ignore() {
+        engine.evaluate(patient(0, 36.0, 80), NOW);
+        engine.evaluate(patient(1, 37.5, 80), NOW);
+        engine.evaluate(patient(2, 37.5, 80), NOW);
+
+        assertEquals(List.of(alert("temperature-rising", VitalsAlertState.RAISED, 37.5, NOW)), alerts);
+    }
+
+    @Test
+    void onPatientChanged_discharged_clearActiveAlerts() {
+        engine.onPatientChanged(new PatientChangedEvent(PatientChangeType.ADMITTED, patient(0, 39.0, 80), NOW));
+        engine.onPatientChanged(new PatientChangedEvent(PatientChangeType.DISCHARGED, patient(1, 39.0, 80), NOW));
+        engine.onPatientChanged(new PatientChangedEvent(PatientChangeType.DISCHARGED, patient(1, 39.0, 80), NOW));
+
+        assertEquals(List.of(alert("fever", VitalsAlertState.RAISED, 39.0, NOW),
+                alert("fever", VitalsAlertState.CLEARED, 39.0, NOW)), alerts);
+    }
+
+    @Test
+    void constructor_ruleWithoutConditions_throwException() {
+        VitalsAlertProperties properties = new VitalsAlertProperties();
+        properties.setRules(List.of(rule("empty", Vital.PULSE, null, null, null)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new VitalsAlertEngine(properties, List.of(), meterRegistry));
+    }
+
+    private static VitalsAlertProperties.Rule rule(String name, Vital vital, Double above, Double below, Double rise) {
+        VitalsAlertProperties.Rule rule = new VitalsAlertProperties.Rule();
+        rule.setName(name);
+        rule.setVital(vital);
+        rule.setAbove(above);
+        rule.setBelow(below);
+        rule.setRise(rise);
+        return rule;
+    }
+
+    private PatientDto patient(long version, double temperature, int pulse) {
+        return PatientDto.builder()
+                .id(patientId)
+                .name("Watched name")
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .lastTemperature(temperature)
+                .lastPulse(pulse)
+                .version(version)
+                .build();
+    }
+
+    private VitalsAlert alert(String rule, VitalsAlertState state, double value, Instant changedAt) {
+        return new VitalsAlert(patientId, "Watched name", rule, state, value, changedAt);
+    }
+}
\ No newline at end of file
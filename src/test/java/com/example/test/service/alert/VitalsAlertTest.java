@@ -0,0 +1,104 @@
+package com.example.test.service.alert;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.PatientVitalsDto;
+import com.example.test.service.PatientService;
+import com.example.test.service.implementation.PatientVitalsBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class VitalsAlertTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private PatientVitalsBuffer patientVitalsBuffer;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private RecordingVitalsAlertListener listener;
+
+    private UUID patientId;
+
+    @BeforeEach
+    void init() {
+        patientId = patientService.addNewPatient(patient(36.6, 90)).getId();
+        listener.alerts.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient, patient_vitals");
+    }
+
+    @Test
+    void addVitals_fever_raiseAlertAfterFlush() {
+        patientService.addVitals(patientId, PatientVitalsDto.builder()
+                .temperature(38.4)
+                .pulse(90)
+                .measuredAt(Instant.now())
+                .build());
+
+        patientVitalsBuffer.flush();
+
+        assertEquals(List.of("fever RAISED", "temperature-rising RAISED"), alertNames());
+    }
+
+    @Test
+    void changeAndDischarge_clearAlerts() {
+        patientService.changeInformationAboutPatient(patientId, patient(36.6, 130));
+        patientService.changeInformationAboutPatient(patientId, patient(36.6, 100));
+        patientService.changeInformationAboutPatient(patientId, patient(39.0, 100));
+        patientService.dischargePatient(patientId);
+
+        assertEquals(List.of("pulse-out-of-band RAISED", "pulse-out-of-band CLEARED",
+                "fever RAISED", "temperature-rising RAISED",
+                "fever CLEARED", "temperature-rising CLEARED"), alertNames());
+    }
+
+    private List<String> alertNames() {
+        return listener.alerts.stream().map(alert -> alert.rule() + " " + alert.state()).toList();
+    }
+
+    private static PatientDto patient(double temperature, int pulse) {
+        return PatientDto.builder()
+                .name("Watched name")
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .lastTemperature(temperature)
+                .lastPulse(pulse)
+                .build();
+    }
+
+    @TestConfiguration
+    static class RecordingListenerConfiguration {
+
+        @Bean
+        RecordingVitalsAlertListener recordingVitalsAlertListener() {
+            return new RecordingVitalsAlertListener();
+        }
+    }
+
+    static class RecordingVitalsAlertListener implements VitalsAlertListener {
+
+        private final List<VitalsAlert> alerts = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onAlert(VitalsAlert alert) {
+            alerts.add(alert);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.example.test.service.cache;
+
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.mapper.PatientMapper;
+import com.example.test.model.entity.Patient;
+import com.example.test.repository.PatientRepository;
+import com.example.test.service.event.PatientChangeType;
+import com.example.test.service.event.PatientChangedEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotDischargedPatientsCacheTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    private final PatientMapper patientMapper = Mappers.getMapper(PatientMapper.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NotDischargedPatientsCache cache;
+    private Patient patient;
+
+    @BeforeEach
+    void init() {
+        cache = new NotDischargedPatientsCache(patientRepository, objectMapper, meterRegistry);
+
+        patient = Patient.builder()
+                .id(UUID.randomUUID())
+                .name("Test name")
+                .birthDate(LocalDate.of(2024, 3, 5))
+                .lastPulse(90)
+                .lastTemperature(36.6)
+                .build();
+    }
+
+    @Test
+    void getSnapshot_calledTwice_loadFromDatabaseOnce() {
+        when(patientRepository.findNotDischargedPatients()).thenReturn(List.of(patientMapper.toPatientDto(patient)));
+
+        PatientsSnapshot firstSnapshot = cache.getSnapshot();
+        PatientsSnapshot secondSnapshot = cache.getSnapshot();
+
+        assertSame(firstSnapshot, secondSnapshot);
+        assertEquals(List.of(patientMapper.toPatientDto(patient)), read(secondSnapshot));
+        assertEquals(1, meterRegistry.counter("patient.census.cache.hits").count());
+        assertEquals(1, meterRegistry.counter("patient.census.cache.misses").count());
+        verify(patientRepository, times(1)).findNotDischargedPatients();
+    }
+
+    @Test
+    void onPatientChanged_admittedUpdatedAndDischarged_keepDatabaseOrderWithoutReload() {
+        when(patientRepository.findNotDischargedPatients()).thenReturn(List.of(patientMapper.toPatientDto(patient)));
+        PatientsSnapshot firstSnapshot = cache.getSnapshot();
+
+        PatientDto admittedPatient = PatientDto.builder().id(UUID.randomUUID()).name("a name").build();
+        cache.onPatientChanged(new PatientChangedEvent(PatientChangeType.ADMITTED, admittedPatient));
+        PatientDto renamedPatient = patientMapper.toPatientDto(patient);
+        renamedPatient.setName("B name");
+        renamedPatient.setVersion(1);
+        cache.onPatientChanged(new PatientChangedEvent(PatientChangeType.UPDATED, renamedPatient));
+        // Case insensitive database collation, unlike String.compareTo
+        when(patientRepository.findNotDischargedPatientIds()).thenReturn(List.of(admittedPatient.getId(), patient.getId()));
+
+        PatientsSnapshot secondSnapshot = cache.getSnapshot();
+        assertEquals(List.of("a name", "B name"), read(secondSnapshot).stream().map(PatientDto::getName).toList());
+        assertNotEquals(firstSnapshot.eTag(), secondSnapshot.eTag());
+
+        renamedPatient.setDischarged(true);
+        cache.onPatientChanged(new PatientChangedEvent(PatientChangeType.DISCHARGED, renamedPatient));
+        PatientDto lateVitals = patientMapper.toPatientDto(patient);
+        cache.onPatientChanged(new PatientChangedEvent(PatientChangeType.VITALS_CHANGED, lateVitals));
+
+        assertEquals(List.of(admittedPatient), read(cache.getSnapshot()));
+        verify(patientRepository, times(1)).findNotDischargedPatients();
+        verify(patientRepository, times(1)).findNotDischargedPatientIds();
+    }
+
+    @Test
+    void onPatientChanged_vitalsChanged_keepOrderWithoutQuery() {
+        Patient otherPatient = Patient.builder().id(UUID.randomUUID()).name("Other name").build();
+        when(patientRepository.findNotDischargedPatients()).thenReturn(
+                List.of(patientMapper.toPatientDto(patient), patientMapper.toPatientDto(otherPatient)));
+        cache.getSnapshot();
+
+        PatientDto changedPatient = patientMapper.toPatientDto(patient);
+        changedPatient.setLastPulse(120);
+        changedPatient.setVersion(1);
+        cache.onPatientChanged(new PatientChangedEvent(PatientChangeType.VITALS_CHANGED, changedPatient));
+
+        assertEquals(List.of("Test name", "Other name"),
+                read(cache.getSnapshot()).stream().map(PatientDto::getName).toList());
+        verify(patientRepository, never()).findNotDischargedPatientIds();
+    }
+
+    @Test
+    void onPatientChanged_olderVersion_ignoreChange() {
+        patient.setVersion(2);
+        when(patientRepository.findNotDischargedPatients()).thenReturn(List.of(patientMapper.toPatientDto(patient)));
+        PatientsSnapshot snapshot = cache.getSnapshot();
+
+        PatientDto stalePatient = patientMapper.toPatientDto(patient);
+        stalePatient.setVersion(1);
+        stalePatient.setName("Stale name");
+        cache.onPatientChanged(new PatientChangedEvent(PatientChangeType.UPDATED, stalePatient));
+
+        assertSame(snapshot, cache.getSnapshot());
+    }
+
+    private List<PatientDto> read(PatientsSnapshot snapshot) {
+        try {
+            return objectMapper.readValue(snapshot.body(), new TypeReference<>() {});
+        } catch (Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
\ No newline at end of file
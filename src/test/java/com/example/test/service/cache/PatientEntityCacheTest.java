@@ -0,0 +1,105 @@
+package com.example.test.service.cache;
+
+import com.example.test.PostgresIntegrationTest;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.model.entity.Patient;
+import com.example.test.service.PatientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class PatientEntityCacheTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private NotDischargedPatientsCache notDischargedPatientsCache;
+
+    private UUID patientId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void init() {
+        patientId = patientService.addNewPatient(PatientDto.builder()
+                .name("Cached name")
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .build()).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE patient");
+        entityManagerFactory.getCache().evictAll();
+        notDischargedPatientsCache.invalidate();
+    }
+
+    @Test
+    void getPatient_secondLookup_readFromCache() {
+        patientService.getPatient(patientId);
+        patientService.getPatient(patientId);
+
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertTrue(entityManagerFactory.getCache().contains(Patient.class, patientId));
+    }
+
+    @Test
+    void getPatient_afterUpdate_returnChangedPatient() {
+        patientService.getPatient(patientId);
+
+        patientService.changeInformationAboutPatient(patientId, PatientDto.builder()
+                .name("Changed name")
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .build());
+
+        assertFalse(entityManagerFactory.getCache().contains(Patient.class, patientId));
+        assertEquals("Changed name", patientService.getPatient(patientId).getName());
+    }
+
+    @Test
+    void getPatient_afterDischarge_returnDischargedPatient() {
+        patientService.getPatient(patientId);
+
+        patientService.dischargePatient(patientId);
+
+        assertTrue(patientService.getPatient(patientId).isDischarged());
+    }
+
+    @Test
+    void getPatient_exposeHitRatioAndEvictions() {
+        patientService.getPatient(patientId);
+        patientService.getPatient(patientId);
+
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "patient.entity", "result", "hit")
+                .functionCounter().count());
+        assertTrue(meterRegistry.get("cache.hit.ratio").tag("cache", "patient.entity").gauge().value() > 0);
+        assertNotNull(meterRegistry.get("cache.evictions").tag("cache", "patient.entity").functionCounter());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.example.test.service.cache;
+
+import com.example.test.config.WardStatisticsProperties;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.controller.dto.WardStatisticsDto;
+import com.example.test.repository.PatientRepository;
+import com.example.test.service.event.PatientChangeType;
+import com.example.test.service.event.PatientChangedEvent;
+import com.example.test.service.event.PatientsImportedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class WardStatisticsCacheTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDate today = LocalDate.now();
+
+    private WardStatisticsCache wardStatisticsCache;
+    private PatientDto child;
+    private PatientDto adult;
+
+    @BeforeEach
+    void init() {
+        wardStatisticsCache = new WardStatisticsCache(patientRepository, new WardStatisticsProperties(), meterRegistry);
+        child = patient("Child name", today.minusYears(10), 37.0, 110, 0);
+        adult = patient("Adult name", today.minusYears(50).plusDays(1), 38.0, 70, 0);
+    }
+
+    @Test
+    void getStatistics_loadOnceAndAggregate() {
+        when(patientRepository.findNotDischargedPatients()).thenReturn(List.of(child, adult));
+
+        wardStatisticsCache.getStatistics();
+        WardStatisticsDto statistics = wardStatisticsCache.getStatistics();
+
+        verify(patientRepository, times(1)).findNotDischargedPatients();
+        assertEquals(2, statistics.getActivePatients());
+        assertEquals(37.5, statistics.getAverageTemperature());
+        assertEquals(38.0, statistics.getMaxTemperature());
+        assertEquals(Map.of("<50", 0L, "50-59", 0L, "60-99", 1L, "100-119", 1L, "120+", 0L),
+                statistics.getPulseDistribution());
+        assertEquals(Map.of("0-17", 1L, "18-39", 0L, "40-64", 1L, "65-79", 0L, "80+", 0L),
+                statistics.getAgeBrackets());
+    }
+
+    @Test
+    void onPatientChanged_updateAndDischarge_changeAggregatesWithoutDatabase() {
+        when(patientRepository.findNotDischargedPatients()).thenReturn(List.of(child, adult));
+        wardStatisticsCache.getStatistics();
+
+        wardStatisticsCache.onPatientChanged(new PatientChangedEvent(PatientChangeType.UPDATED,
+                patient(adult.getId(), adult.getName(), adult.getBirthDate(), 36.0, 130, 1)));
+        wardStatisticsCache.onPatientChanged(new PatientChangedEvent(PatientChangeType.DISCHARGED,
+                patient(child.getId(), child.getName(), child.getBirthDate(), 37.0, 110, 1)));
+        wardStatisticsCache.onPatientChanged(new PatientChangedEvent(PatientChangeType.VITALS_CHANGED,
+                patient(child.getId(), child.getName(), child.getBirthDate(), 39.0, 110, 1)));
+        WardStatisticsDto statistics = wardStatisticsCache.getStatistics();
+
+        verify(patientRepository, times(1)).findNotDischargedPatients();
+        assertEquals(1, statistics.getActivePatients());
+        assertEquals(36.0, statistics.getAverageTemperature());
+        assertEquals(36.0, statistics.getMaxTemperature());
+        assertEquals(1L, statistics.getPulseDistribution().get("120+"));
+        assertEquals(1L, statistics.getAgeBrackets().get("40-64"));
+    }
+
+    @Test
+    void onPatientChanged_admitted_addPatient() {
+        when(patientRepository.findNotDischargedPatients()).thenReturn(List.of());
+        assertNull(wardStatisticsCache.getStatistics().getMaxTemperature());
+
+        wardStatisticsCache.onPatientChanged(new PatientChangedEvent(PatientChangeType.ADMITTED, adult));
+
+        assertEquals(1, wardStatisticsCache.getStatistics().getActivePatients());
+        assertEquals(1L, wardStatisticsCache.getStatistics().getAgeBrackets().get("40-64"));
+    }
+
+    @Test
+    void reconcile_patientChangedBypassingService_countDrift() {
+        when(patientRepository.findNotDischargedPatients()).thenReturn(List.of(child, adult), List.of(child));
+        wardStatisticsCache.getStatistics();
+
+        wardStatisticsCache.reconcile();
+
+        assertEquals(1, wardStatisticsCache.getStatistics().getActivePatients());
+        assertEquals(1, meterRegistry.get("patient.ward.statistics.drift").counter().count());
+    }
+
+    @Test
+    void onPatientsImported_reloadOnNextRead() {
+        when(patientRepository.findNotDischargedPatients()).thenReturn(List.of(child), List.of(child, adult));
+        wardStatisticsCache.getStatistics();
+
+        wardStatisticsCache.onPatientsImported(new PatientsImportedEvent(1));
+
+        assertEquals(2, wardStatisticsCache.getStatistics().getActivePatients());
+    }
+
+    private static PatientDto patient(String name, LocalDate birthDate, double temperature, int pulse, long version) {
+        return patient(UUID.randomUUID(), name, birthDate, temperature, pulse, version);
+    }
+
+    private static PatientDto patient(UUID id, String name, LocalDate birthDate, double temperature, int pulse,
+                                      long version) {
+        return new PatientDto(id, name, birthDate, temperature, pulse, false, version);
+    }
+}
\ No newline at end of file
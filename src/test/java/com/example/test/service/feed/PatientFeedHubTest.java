@@ -0,0 +1,188 @@
+package com.example.test.service.feed;
+
+import com.example.test.config.PatientFeedProperties;
+import com.example.test.controller.dto.PatientDto;
+import com.example.test.service.cache.NotDischargedPatientsCache;
+import com.example.test.service.cache.PatientsSnapshot;
+import com.example.test.service.event.PatientChangeType;
+import com.example.test.service.event.PatientChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PatientFeedHubTest {
+
+    private static final int QUEUE_CAPACITY = 4;
+    private static final int SENDER_THREADS = 2;
+    private static final int STALLED_SUBSCRIBERS = 5;
+    private static final int IDLE_SUBSCRIBERS = 2000;
+
+    @Mock
+    private NotDischargedPatientsCache notDischargedPatientsCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PatientFeedHub patientFeedHub;
+    private PatientDto patientDto;
+
+    @BeforeEach
+    void init() {
+        patientFeedHub = createHub(Duration.ofSeconds(10));
+
+        patientDto = PatientDto.builder().id(UUID.randomUUID()).name("Test name").build();
+
+        when(notDischargedPatientsCache.getSnapshot())
+                .thenReturn(new PatientsSnapshot("[]".getBytes(StandardCharsets.UTF_8), "\"1\""));
+    }
+
+    @AfterEach
+    void destroy() {
+        patientFeedHub.destroy();
+    }
+
+    @Test
+    void subscribe_patientChanged_sendSnapshotAndThenChange() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber(2, null);
+
+        patientFeedHub.subscribe(subscriber);
+        patientFeedHub.onPatientChanged(new PatientChangedEvent(PatientChangeType.ADMITTED, patientDto));
+
+        assertTrue(subscriber.sent.await(5, TimeUnit.SECONDS));
+        assertEquals(new PatientFeedEvent(PatientFeedHub.SNAPSHOT_EVENT, "\"1\"", "[]"), subscriber.events.get(0));
+        assertEquals("ADMITTED", subscriber.events.get(1).name());
+        assertTrue(subscriber.events.get(1).data().contains(patientDto.getId().toString()));
+    }
+
+    @Test
+    void onPatientChanged_slowSubscriber_disconnectItWithoutBlockingWriter() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        RecordingSubscriber slowSubscriber = new RecordingSubscriber(1, blocked);
+        RecordingSubscriber fastSubscriber = new RecordingSubscriber(QUEUE_CAPACITY * 2 + 1, null);
+
+        patientFeedHub.subscribe(slowSubscriber);
+        patientFeedHub.subscribe(fastSubscriber);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < QUEUE_CAPACITY * 2; i++) {
+                patientFeedHub.onPatientChanged(new PatientChangedEvent(PatientChangeType.VITALS_CHANGED, patientDto));
+                // Keeps the fast subscriber drained while the slow one stays blocked
+                Thread.sleep(10);
+            }
+        });
+        blocked.countDown();
+
+        assertTrue(fastSubscriber.sent.await(5, TimeUnit.SECONDS));
+        assertEquals(1, patientFeedHub.getSubscriberCount());
+        assertEquals(1, meterRegistry.counter("patient.feed.dropped").count());
+    }
+
+    @Test
+    void onPatientChanged_thousandsOfSubscribersAndFewNotReading_deliverToEveryReadingSubscriber() throws Exception {
+        patientFeedHub.destroy();
+        patientFeedHub = createHub(Duration.ofMillis(200));
+        CountDownLatch blocked = new CountDownLatch(1);
+        List<RecordingSubscriber> stalledSubscribers = new ArrayList<>();
+        List<RecordingSubscriber> idleSubscribers = new ArrayList<>();
+        for (int i = 0; i < STALLED_SUBSCRIBERS; i++) {
+            stalledSubscribers.add(new RecordingSubscriber(1, blocked));
+        }
+        for (int i = 0; i < IDLE_SUBSCRIBERS; i++) {
+            idleSubscribers.add(new RecordingSubscriber(2, null));
+        }
+
+        try {
+            // Stalled subscribers take every sender thread before the idle ones subscribe
+            stalledSubscribers.forEach(patientFeedHub::subscribe);
+            idleSubscribers.forEach(patientFeedHub::subscribe);
+            patientFeedHub.onPatientChanged(new PatientChangedEvent(PatientChangeType.ADMITTED, patientDto));
+
+            for (RecordingSubscriber subscriber : idleSubscribers) {
+                assertTrue(subscriber.sent.await(10, TimeUnit.SECONDS));
+            }
+            // The last stalled subscriber may still be within the send timeout
+            awaitUntil(() -> patientFeedHub.getSubscriberCount() == IDLE_SUBSCRIBERS);
+            assertEquals(IDLE_SUBSCRIBERS, patientFeedHub.getSubscriberCount());
+            assertEquals(STALLED_SUBSCRIBERS, meterRegistry.counter("patient.feed.dropped").count());
+        } finally {
+            blocked.countDown();
+        }
+
+        for (RecordingSubscriber subscriber : stalledSubscribers) {
+            assertTrue(subscriber.closed.await(5, TimeUnit.SECONDS));
+        }
+        awaitUntil(() -> patientFeedHub.getSenderThreads() == SENDER_THREADS);
+        assertEquals(SENDER_THREADS, patientFeedHub.getSenderThreads());
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private PatientFeedHub createHub(Duration sendTimeout) {
+        PatientFeedProperties properties = new PatientFeedProperties();
+        properties.setQueueCapacity(QUEUE_CAPACITY);
+        properties.setSenderThreads(SENDER_THREADS);
+        properties.setSendTimeout(sendTimeout);
+        return new PatientFeedHub(notDischargedPatientsCache,
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry, properties);
+    }
+
+    /**
+     * Records sent events instead of writing them to a response, optionally blocks like a client which does not read.
+     */
+    private static class RecordingSubscriber implements PatientFeedSubscriber {
+
+        private final List<PatientFeedEvent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sent;
+        private final CountDownLatch blocked;
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        RecordingSubscriber(int expectedEvents, CountDownLatch blocked) {
+            this.sent = new CountDownLatch(expectedEvents);
+            this.blocked = blocked;
+        }
+
+        @Override
+        public void send(PatientFeedEvent event) {
+            events.add(event);
+            sent.countDown();
+            if (blocked != null) {
+                try {
+                    blocked.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
\ No newline at end of file